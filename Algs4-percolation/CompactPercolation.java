@@ -0,0 +1,173 @@
+/****************************************************************************
+ *  Compilation:  javac CompactPercolation.java
+ *  Execution:    none (same API as Percolation)
+ *  Dependencies: none
+ *
+ *  A memory-lean percolation system model for very large grids.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>CompactPercolation</tt> class is a drop-in alternative to
+ *  {@link Percolation} that needs about 4.25 bytes per site instead of 9.
+ *  The open sites are kept in a <tt>long[]</tt> bitset, and the union-find
+ *  is a single <tt>int[]</tt> of parent links in which every root stores
+ *  its rank as a negative number. The "connected to the bottom" flag is a
+ *  second bitset that is only meaningful at roots.
+ *  Union is by rank with path halving.
+ *
+ *  @author Jiayue Bao
+ */
+
+import java.util.Arrays;
+
+public class CompactPercolation {
+
+    private int n;        // number of rows and columns
+    private int top;      // index of the virtual-top site
+    // parent[p] = parent of site p, or -1 - rank if p is a root
+    private int[] parent;
+    private long[] open;   // bit p is set if site p is open
+    private long[] bottom; // bit r is set if root r is connected to the bottom
+    private int count;
+
+    /**
+     * Create n-by-n grid, with all sites blocked
+     * @throws java.lang.IllegalArgumentException if n <= 0 or the grid
+     *     has more sites than an int index can address
+     * @param n number of row and columns
+     */
+    public CompactPercolation(int n) {
+        if (n <= 0) throw new IllegalArgumentException("invalid input");
+        if ((long) n * n >= Integer.MAX_VALUE)
+            throw new IllegalArgumentException("grid too large");
+        this.n = n;
+        top = n * n;
+        parent = new int[top + 1];
+        Arrays.fill(parent, -1);
+        open = new long[(top >>> 6) + 1];
+        bottom = new long[(top >>> 6) + 1];
+        count = 0;
+    }
+
+    /**
+     * Block all sites again, reusing the storage of this grid
+     */
+    public void reset() {
+        Arrays.fill(parent, -1);
+        Arrays.fill(open, 0L);
+        Arrays.fill(bottom, 0L);
+        count = 0;
+    }
+
+    // validate that i and j are valid indices
+    private void validate(int i, int j) {
+        if (i <= 0 || i > n)
+            throw new IllegalArgumentException("row index i out of bounds");
+        if (j <= 0 || j > n)
+            throw new IllegalArgumentException("column index j out of bounds");
+    }
+
+    private static boolean get(long[] bits, int p) {
+        return (bits[p >>> 6] & (1L << p)) != 0;
+    }
+
+    private static void set(long[] bits, int p) {
+        bits[p >>> 6] |= 1L << p;
+    }
+
+    // root of site p, halving the path on the way up
+    private int find(int p) {
+        int q;
+        while ((q = parent[p]) >= 0) {
+            int g = parent[q];
+            if (g < 0) return q;
+            parent[p] = g;
+            p = g;
+        }
+        return p;
+    }
+
+    // union by rank, carrying the bottom flag to the new root
+    private void union(int p, int q) {
+        int rootp = find(p);
+        int rootq = find(q);
+        if (rootp == rootq) return;
+        if (parent[rootp] > parent[rootq]) { // rank of p is smaller
+            int t = rootp;
+            rootp = rootq;
+            rootq = t;
+        }
+        if (parent[rootp] == parent[rootq]) parent[rootp]--;
+        parent[rootq] = rootp;
+        if (get(bottom, rootq)) set(bottom, rootp);
+    }
+
+    /**
+     * Open site (row <tt>i</tt>, column <tt>j</tt>) if it is not open already
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @throws java.lang.IllegalArgumentException
+     *     unless both 0 < i <= n and 0 < j <= n
+     */
+    public void open(int i, int j) {
+        validate(i, j);
+        int p = (i - 1) * n + (j - 1);
+        if (get(open, p)) return;
+
+        set(open, p);
+        count++;
+        if (i == n) set(bottom, p);
+        if (i == 1) union(p, top);
+
+        if (j < n && get(open, p + 1)) union(p, p + 1);
+        if (j > 1 && get(open, p - 1)) union(p, p - 1);
+        if (i > 1 && get(open, p - n)) union(p, p - n);
+        if (i < n && get(open, p + n)) union(p, p + n);
+    }
+
+    /**
+     * Is site (row <tt>i</tt>, column <tt>j</tt>) open?
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @return <tt>true</tt> if the site at row <tt>i</tt>, column <tt>j</tt>
+     *     is open and <tt>false</tt> otherwise
+     * @throws java.lang.IllegalArgumentException
+     *     unless both 0 < i <= n and 0 < j <= n
+     */
+    public boolean isOpen(int i, int j) {
+        validate(i, j);
+        return get(open, (i - 1) * n + (j - 1));
+    }
+
+    /**
+     * Is site (row <tt>i</tt>, column <tt>j</tt>) full?
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @return <tt>true</tt> if the site at row <tt>i</tt>, column <tt>j</tt>
+     *     is full and <tt>false</tt> otherwise
+     * @throws java.lang.IllegalArgumentException
+     *     unless both 0 < i <= n and 0 < j <= n
+     */
+    public boolean isFull(int i, int j) {
+        validate(i, j);
+        int p = (i - 1) * n + (j - 1);
+        return get(open, p) && find(p) == find(top);
+    }
+
+    /**
+     * Does the system percolate?
+     * @return <tt>true</tt> if the system percolates and <tt>false</tt> otherwise
+     */
+    public boolean percolates() {
+        return get(bottom, find(top));
+    }
+
+    /**
+     * number of open sites
+     * @return number of open sites
+     */
+    public int numberOfOpenSites() {
+        return count;
+    }
+}
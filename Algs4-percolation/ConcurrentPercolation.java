@@ -0,0 +1,170 @@
+/****************************************************************************
+ *  Compilation:  javac ConcurrentPercolation.java
+ *  Execution:    none (same API as Percolation)
+ *  Dependencies: ConcurrentUnionFind.java
+ *
+ *  A percolation system model that many threads can open sites in.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>ConcurrentPercolation</tt> class is a thread-safe version of
+ *  {@link Percolation}, meant for one huge grid shared by many threads.
+ *  Every method may be called from any thread without locking.
+ *  <p>
+ *  A thread opening a site first claims it by setting its open bit with a
+ *  CAS, then unions it with its open neighbours. Since every opener sets
+ *  the bit before it looks at its neighbours, of two adjacent sites opened
+ *  at the same time at least one sees the other. A thread that finds the
+ *  site already claimed does the same unions, which are idempotent, so
+ *  that it does not return while the claiming thread is still connecting
+ *  the site. Whichever thread finishes first then sets the site's
+ *  published bit, which is what <em>isOpen</em> reads.
+ *  A "connected to the bottom" flag at the root cannot be kept up to date
+ *  without locking, so there are two {@link ConcurrentUnionFind}s: one with
+ *  a virtual top for <em>isFull</em>, and one with a virtual top and bottom
+ *  for <em>percolates</em>. Sites are never closed and components only ever
+ *  grow, so a query sees the effect of every <em>open</em> that returned
+ *  before the query began, and once true it stays true. The effect of an
+ *  <em>open</em> still in progress may be seen in part, e.g. a site may
+ *  become full through a neighbour that <em>isOpen</em> does not report yet.
+ *
+ *  @author Jiayue Bao
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ConcurrentPercolation {
+
+    private int n;                  // number of rows and columns
+    private int top, bottom;        // indices of the virtual sites
+    private ConcurrentUnionFind full;   // sites plus virtual top
+    private ConcurrentUnionFind perc;   // sites plus virtual top and bottom
+    private AtomicLongArray open;   // bit p is set once site p is claimed
+    private AtomicLongArray published; // bit p is set once site p is connected
+    private AtomicInteger count;
+
+    /**
+     * Create n-by-n grid, with all sites blocked
+     * @throws java.lang.IllegalArgumentException if n <= 0 or the grid
+     *     has more sites than an int index can address
+     * @param n number of row and columns
+     */
+    public ConcurrentPercolation(int n) {
+        if (n <= 0) throw new IllegalArgumentException("invalid input");
+        if ((long) n * n > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("grid too large");
+        this.n = n;
+        top = n * n;
+        bottom = n * n + 1;
+        full = new ConcurrentUnionFind(n * n + 1);
+        perc = new ConcurrentUnionFind(n * n + 2);
+        open = new AtomicLongArray((n * n >>> 6) + 1);
+        published = new AtomicLongArray((n * n >>> 6) + 1);
+        count = new AtomicInteger();
+    }
+
+    // validate that i and j are valid indices
+    private void validate(int i, int j) {
+        if (i <= 0 || i > n)
+            throw new IllegalArgumentException("row index i out of bounds");
+        if (j <= 0 || j > n)
+            throw new IllegalArgumentException("column index j out of bounds");
+    }
+
+    private static boolean get(AtomicLongArray bits, int p) {
+        return (bits.get(p >>> 6) & (1L << p)) != 0;
+    }
+
+    private boolean get(int p) {
+        return get(open, p);
+    }
+
+    // set bit p; returns false if it was already set
+    private static boolean mark(AtomicLongArray bits, int p) {
+        long bit = 1L << p;
+        long old;
+        do {
+            old = bits.get(p >>> 6);
+            if ((old & bit) != 0) return false;
+        } while (!bits.compareAndSet(p >>> 6, old, old | bit));
+        return true;
+    }
+
+    private void union(int p, int q) {
+        full.union(p, q);
+        perc.union(p, q);
+    }
+
+    /**
+     * Open site (row <tt>i</tt>, column <tt>j</tt>) if it is not open already.
+     * When this returns, even if another thread opened the site at the same
+     * time, the site is connected to all of its open neighbours.
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @throws java.lang.IllegalArgumentException
+     *     unless both 0 < i <= n and 0 < j <= n
+     */
+    public void open(int i, int j) {
+        validate(i, j);
+        int p = (i - 1) * n + (j - 1);
+        if (get(published, p)) return;
+        if (mark(open, p)) count.incrementAndGet();
+
+        if (i == 1) union(p, top);
+        if (i == n) perc.union(p, bottom);
+
+        if (j < n && get(p + 1)) union(p, p + 1);
+        if (j > 1 && get(p - 1)) union(p, p - 1);
+        if (i > 1 && get(p - n)) union(p, p - n);
+        if (i < n && get(p + n)) union(p, p + n);
+        mark(published, p);
+    }
+
+    /**
+     * Is site (row <tt>i</tt>, column <tt>j</tt>) open? A site counts as
+     * open once it is connected to its open neighbours.
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @return <tt>true</tt> if the site at row <tt>i</tt>, column <tt>j</tt>
+     *     is open and <tt>false</tt> otherwise
+     * @throws java.lang.IllegalArgumentException
+     *     unless both 0 < i <= n and 0 < j <= n
+     */
+    public boolean isOpen(int i, int j) {
+        validate(i, j);
+        return get(published, (i - 1) * n + (j - 1));
+    }
+
+    /**
+     * Is site (row <tt>i</tt>, column <tt>j</tt>) full?
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @return <tt>true</tt> if the site at row <tt>i</tt>, column <tt>j</tt>
+     *     is full and <tt>false</tt> otherwise
+     * @throws java.lang.IllegalArgumentException
+     *     unless both 0 < i <= n and 0 < j <= n
+     */
+    public boolean isFull(int i, int j) {
+        validate(i, j);
+        int p = (i - 1) * n + (j - 1);
+        return get(p) && full.connected(p, top);
+    }
+
+    /**
+     * Does the system percolate?
+     * @return <tt>true</tt> if the system percolates and <tt>false</tt> otherwise
+     */
+    public boolean percolates() {
+        return perc.connected(top, bottom);
+    }
+
+    /**
+     * number of open sites
+     * @return number of open sites
+     */
+    public int numberOfOpenSites() {
+        return count.get();
+    }
+}
@@ -0,0 +1,87 @@
+/****************************************************************************
+ *  Compilation:  javac ConcurrentUnionFind.java
+ *  Dependencies: UnionFind.java
+ *
+ *  Lock-free union-find with CAS linking and randomized linking order.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>ConcurrentUnionFind</tt> class is a thread-safe, lock-free
+ *  {@link UnionFind} in the style of Jayanti and Tarjan. The parent links
+ *  live in an <tt>AtomicIntegerArray</tt>:
+ *  <ul>
+ *  <li><em>union</em> links one root under the other with a single CAS on
+ *      the root's own link, and retries from scratch if another thread got
+ *      there first. Roots are always linked in the order of a fixed random
+ *      priority, which keeps the expected tree height logarithmic and can
+ *      never create a cycle.
+ *  <li><em>find</em> halves the path with CAS; a failed CAS only means that
+ *      another thread already shortened the path, so it is not retried.
+ *  <li><em>connected</em> is linearizable: it only answers <tt>false</tt>
+ *      after seeing that the root of p is still a root once both finds are
+ *      done.
+ *  </ul>
+ *
+ *  @author Jiayue Bao
+ */
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ConcurrentUnionFind implements UnionFind {
+
+    private AtomicIntegerArray parent; // parent.get(p) = parent of site p
+
+    public ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        reset();
+    }
+
+    /**
+     * Puts every site back into a component of its own. Not safe to call
+     * while other threads use this union-find.
+     */
+    public void reset() {
+        for (int i = 0; i < parent.length(); i++)
+            parent.set(i, i);
+    }
+
+    // random-looking but fixed priority of a site; a bijection on ints
+    private static int priority(int p) {
+        return p * 0x9E3779B9;
+    }
+
+    public int find(int p) {
+        while (true) {
+            int q = parent.get(p);
+            if (q == p) return p;
+            int g = parent.get(q);
+            if (g == q) return q;
+            parent.compareAndSet(p, q, g); // path halving
+            p = g;
+        }
+    }
+
+    public void union(int p, int q) {
+        while (true) {
+            int rootp = find(p);
+            int rootq = find(q);
+            if (rootp == rootq) return;
+            if (priority(rootp) > priority(rootq)) {
+                int t = rootp;
+                rootp = rootq;
+                rootq = t;
+            }
+            if (parent.compareAndSet(rootp, rootp, rootq)) return;
+        }
+    }
+
+    public boolean connected(int p, int q) {
+        while (true) {
+            int rootp = find(p);
+            int rootq = find(q);
+            if (rootp == rootq) return true;
+            if (parent.get(rootp) == rootp) return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/****************************************************************************
+ *  Compilation:  javac Lattice.java
+ *
+ *  The lattices a Percolation system can be built on.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>Lattice</tt> enum lists the site lattices supported by
+ *  {@link Percolation}, with their (approximate) site percolation
+ *  thresholds. All but <tt>CUBIC</tt> are two-dimensional grids of rows and
+ *  columns; <tt>CUBIC</tt> adds layers. The system percolates when an open
+ *  path connects the first row to the last one.
+ *
+ *  @author Jiayue Bao
+ */
+public enum Lattice {
+    /** 4 neighbours: left, right, up, down (threshold 0.5927). */
+    SQUARE,
+    /** 8 neighbours: the square ones plus the diagonals (threshold 0.4073). */
+    MOORE,
+    /** 6 neighbours: the square ones plus the up-left and down-right
+     *  diagonals, which is a triangular lattice drawn on a grid (threshold 0.5). */
+    TRIANGULAR,
+    /** 3 neighbours: left, right, and down if row + column is even, up
+     *  otherwise, which is a honeycomb lattice drawn as a brick wall
+     *  (threshold 0.6970). */
+    HEXAGONAL,
+    /** 6 neighbours: left, right, up, down, and the two adjacent layers
+     *  (threshold 0.3116). */
+    CUBIC;
+
+    /**
+     * Index offsets of the neighbours of a site, in a layout where the next
+     * column is at +1, the next layer at +width and the next row at +plane.
+     * Entry [parity] lists the offsets for sites whose row + column has
+     * that parity; only <tt>HEXAGONAL</tt> has two different lists.
+     */
+    int[][] offsets(int width, int plane) {
+        int[] offsets;
+        switch (this) {
+            case SQUARE:
+                offsets = new int[] { 1, -1, -plane, plane };
+                break;
+            case MOORE:
+                offsets = new int[] { 1, -1, -plane, plane,
+                                      -plane - 1, -plane + 1, plane - 1, plane + 1 };
+                break;
+            case TRIANGULAR:
+                offsets = new int[] { 1, -1, -plane, plane, -plane - 1, plane + 1 };
+                break;
+            case HEXAGONAL:
+                return new int[][] { { 1, -1, plane }, { 1, -1, -plane } };
+            case CUBIC:
+                offsets = new int[] { 1, -1, -width, width, -plane, plane };
+                break;
+            default:
+                throw new AssertionError(this);
+        }
+        return new int[][] { offsets, offsets };
+    }
+}
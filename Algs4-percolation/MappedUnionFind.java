@@ -0,0 +1,155 @@
+/****************************************************************************
+ *  Compilation:  javac MappedUnionFind.java
+ *  Dependencies: UnionFind.java
+ *
+ *  Weighted quick-union with path halving, stored off-heap in a
+ *  memory-mapped file.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>MappedUnionFind</tt> class is a {@link UnionFind} whose parent
+ *  links and component sizes live in a memory-mapped file instead of the
+ *  Java heap, so the operating system's page cache decides what stays in
+ *  memory. Each site takes 8 bytes: its parent link followed by the size
+ *  of its component (only meaningful at roots).
+ *  <p>
+ *  Both values are stored with an offset of one, so that the all-zero
+ *  content of a freshly sized file already means "every site is its own
+ *  root of size 1" and the constructor does not have to write the file.
+ *  A file can address at most 2^31 - 1 sites; it is split into mappings
+ *  of 2^27 sites (1 GiB) each. For the same reason <em>reset</em> does not
+ *  write zeros over the file, which would make every page of it dense, but
+ *  truncates it to nothing and maps it again.
+ *  <p>
+ *  The file stays open until {@link #close()}; a {@link Percolation} built
+ *  on this backend closes it when the Percolation itself is closed.
+ *
+ *  @author Jiayue Bao
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedUnionFind implements UnionFind, Closeable {
+
+    private static final int CHUNK_SHIFT = 27; // 2^27 sites per mapping
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private Path file;
+    private int n;
+    private FileChannel channel;
+    private MappedByteBuffer[] chunks;
+
+    /**
+     * Create a union-find of n sites backed by the given file, which is
+     * created or truncated
+     * @param file the file to store the sites in
+     * @param n the number of sites
+     * @throws java.lang.IllegalArgumentException if n < 0
+     * @throws java.io.UncheckedIOException if the file cannot be mapped
+     */
+    public MappedUnionFind(Path file, int n) {
+        if (n < 0) throw new IllegalArgumentException("invalid input");
+        this.file = file;
+        this.n = n;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            map();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot map " + file, e);
+        }
+    }
+
+    // size the empty file to n sites and map it
+    private void map() throws IOException {
+        // a sparse file of zeros: every site is its own root
+        if (n > 0) channel.write(ByteBuffer.allocate(1), 8L * n - 1);
+        chunks = new MappedByteBuffer[(int) (((long) n + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (int c = 0; c < chunks.length; c++) {
+            long sites = Math.min((long) n - ((long) c << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    (long) c << (CHUNK_SHIFT + 3), sites << 3);
+        }
+    }
+
+    // parent link of site p
+    private int parent(int p) {
+        int v = chunks[p >>> CHUNK_SHIFT].getInt((p & CHUNK_MASK) << 3);
+        return v == 0 ? p : v - 1;
+    }
+
+    private void setParent(int p, int parent) {
+        chunks[p >>> CHUNK_SHIFT].putInt((p & CHUNK_MASK) << 3, parent + 1);
+    }
+
+    // size of the component rooted at p
+    private int size(int p) {
+        return chunks[p >>> CHUNK_SHIFT].getInt(((p & CHUNK_MASK) << 3) + 4) + 1;
+    }
+
+    private void setSize(int p, int size) {
+        chunks[p >>> CHUNK_SHIFT].putInt(((p & CHUNK_MASK) << 3) + 4, size - 1);
+    }
+
+    public int find(int p) {
+        int q;
+        while ((q = parent(p)) != p) {
+            int g = parent(q);
+            if (g == q) return q;
+            setParent(p, g); // path halving
+            p = g;
+        }
+        return p;
+    }
+
+    public void union(int p, int q) {
+        int rootp = find(p);
+        int rootq = find(q);
+        if (rootp == rootq) return;
+        int sizep = size(rootp);
+        int sizeq = size(rootq);
+        if (sizep < sizeq) {
+            setParent(rootp, rootq);
+            setSize(rootq, sizep + sizeq);
+        }
+        else {
+            setParent(rootq, rootp);
+            setSize(rootp, sizep + sizeq);
+        }
+    }
+
+    /**
+     * Put every site back into a component of its own by truncating the
+     * file and mapping it again, which takes time proportional to the
+     * number of mappings and leaves the file sparse. The old mappings are
+     * dropped and must no longer be used.
+     * @throws java.io.UncheckedIOException if the file cannot be mapped
+     */
+    public void reset() {
+        try {
+            chunks = null;
+            channel.truncate(0);
+            map();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot map " + file, e);
+        }
+    }
+
+    /**
+     * Flush the mapped pages and close the backing file. The mappings stay
+     * valid until they are garbage collected, but must no longer be used.
+     */
+    public void close() throws IOException {
+        for (MappedByteBuffer chunk : chunks) chunk.force();
+        channel.close();
+    }
+}
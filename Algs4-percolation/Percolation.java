@@ -1,7 +1,9 @@
 /****************************************************************************
  *  Compilation:  javac Percolation.java
  *  Execution:  java Percolation input20.txt
- *  Dependencies: In.java StdOut.java WeightedQuickUnionUF.java
+ *              java Percolation input20.bin   (see SiteReader)
+ *  Dependencies: Lattice.java SiteReader.java StdOut.java UnionFind.java
+ *                WeightedQuickUnionUF.java
  *
  *  The Percolation System Model.
  *
@@ -11,22 +13,57 @@
  *  The <tt>Percolation</tt> class represents a percolation system data structure.
  *  It supports the <em>open</em> and <em>percolates</em> operations, along with
  *  methods for determinig whether a specified site is open or full.
+ *  The union-find backend is chosen at construction; by default it is the
+ *  {@link WeightedQuickUnionUF} on the heap, and grids that do not fit in
+ *  the heap can use a {@link MappedUnionFind} instead; closing the
+ *  <tt>Percolation</tt> closes such a backend.
+ *  Besides the square N-by-N grid, rectangular grids on the other
+ *  {@link Lattice}s are supported, including 3-D cubic ones; the neighbours
+ *  of a site come from a precomputed table of index offsets.
+ *  A {@link PercolationListener} can be attached to be told about first
+ *  percolation, merges reaching the top or bottom, and sites becoming full.
  * 
  *  @author YunHsiao Wu
  */
 
-import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdOut;
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntFunction;
 
-public class Percolation {
+public class Percolation implements AutoCloseable {
     
-    private int N; // number of columns plus 1
-    private WeightedQuickUnionUF uf; // union-find data structure
-    // open[i][j] = the condition of site at row i, column j:
+    // Sites are stored in a padded layout: site (row i, column j, layer k)
+    // has index i*plane + k*layer + j. Column 0, rows 0 and rows+1 and, on a
+    // cubic lattice, layer 0 are never opened, so that every neighbour offset
+    // of a real site lands inside the array and the offsets need no bounds
+    // checks. Column 0 serves as the padding on both sides of a row, and
+    // layer 0 on both sides of a plane. 2-D lattices have a single layer
+    // with layer = 0.
+    private int rows, cols, depth;
+    private int width;    // columns plus 1
+    private int plane;    // index distance between rows
+    private int layer;    // index distance between layers, 0 if 2-D
+    private int top;      // index of the virtual-top site
+    private boolean cubic;
+    private int[][] offsets; // offsets[(i+j) % 2] = neighbour index offsets
+    private UnionFind uf; // union-find data structure
+    // open[p] = the condition of site p, indexed like uf:
     // 0 - Blocked site   1 - Open site    2 - Open site connected to the bottom
-    private byte[][] open;
+    // only the entry of a component's root is kept up to date with state 2.
+    private byte[] open;
     private int count;
+    private PercolationListener listener; // null unless events are wanted
+    // ring[p] = next site in the circular list of p's component, which is
+    // only kept while a listener is attached so that a component becoming
+    // full can be walked; each site becomes full once, so walks cost O(1)
+    // amortized per site
+    private int[] ring;
+    private boolean percolated; // has the listener been told about percolation?
     
     /**
      * Create N-by-N grid, with all sites blocked
@@ -34,111 +71,328 @@ public class Percolation {
      * @param N number of row and columns
      */ 
     public Percolation(int N) {
-        if (N <= 0) throw new IllegalArgumentException("invalid input");
-        this.N = N+1;
-        uf = new WeightedQuickUnionUF((N+1)*(N+1));
-        open = new byte[N+1][N+1];
+        this(N, WeightedQuickUnionUF::new);
+    }
+    
+    /**
+     * Create N-by-N grid, with all sites blocked, on a union-find backend
+     * created by <tt>backend</tt> for the given number of sites, e.g.
+     * <pre>
+     * try (Percolation perc = new Percolation(N, n -> new MappedUnionFind(file, n))) {
+     *     ...
+     * }</pre>
+     * where closing the grid closes the mapped file
+     * @throws java.lang.IllegalArgumentException if N <= 0 or the grid
+     *     has more sites than an int index can address
+     * @param N number of row and columns
+     * @param backend creates the union-find for a number of sites
+     */ 
+    public Percolation(int N, IntFunction<? extends UnionFind> backend) {
+        this(N, N, 1, Lattice.SQUARE, backend);
+    }
+    
+    /**
+     * Create a grid of <tt>rows</tt> by <tt>cols</tt> sites on a 2-D lattice,
+     * with all sites blocked
+     * @throws java.lang.IllegalArgumentException if rows <= 0 or cols <= 0,
+     *     or the lattice is <tt>CUBIC</tt>
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param lattice the lattice, which decides the neighbours of a site
+     */ 
+    public Percolation(int rows, int cols, Lattice lattice) {
+        this(rows, cols, 1, lattice, WeightedQuickUnionUF::new);
+    }
+    
+    /**
+     * Create a grid of <tt>rows</tt> by <tt>cols</tt> by <tt>depth</tt> sites,
+     * with all sites blocked, on a union-find backend created by
+     * <tt>backend</tt> for the given number of sites
+     * @throws java.lang.IllegalArgumentException if any dimension is <= 0,
+     *     if depth is not 1 on a 2-D lattice, or if the grid has more sites
+     *     than an int index can address
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param depth number of layers, 1 unless the lattice is <tt>CUBIC</tt>
+     * @param lattice the lattice, which decides the neighbours of a site
+     * @param backend creates the union-find for a number of sites
+     */ 
+    public Percolation(int rows, int cols, int depth, Lattice lattice,
+                       IntFunction<? extends UnionFind> backend) {
+        if (rows <= 0 || cols <= 0 || depth <= 0) throw new IllegalArgumentException("invalid input");
+        if (lattice != Lattice.CUBIC && depth != 1)
+            throw new IllegalArgumentException("2-D lattice with depth " + depth);
+        cubic = lattice == Lattice.CUBIC;
+        long size = ((long) rows + 2) * ((long) cols + 1) * (cubic ? (long) depth + 1 : 1) + 2;
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("grid too large");
+        this.rows = rows;
+        this.cols = cols;
+        this.depth = depth;
+        width = cols + 1;
+        layer = cubic ? width : 0;
+        plane = cubic ? width * (depth + 1) : width;
+        top = (int) size - 1;
+        offsets = lattice.offsets(width, plane);
+        uf = backend.apply((int) size);
+        open = new byte[(int) size];
         count = 0;
     }
     
-    // validate that i and j are valid indices
-    private void validate(int i, int j) {
-        if (i <= 0 || i >= N) 
+    /**
+     * Block all sites again, reusing the storage of this grid and its
+     * union-find, so that many trials on the same size allocate nothing.
+     * An attached listener stays attached.
+     */
+    public void reset() {
+        uf.reset();
+        Arrays.fill(open, (byte) 0);
+        count = 0;
+        if (ring != null) {
+            for (int p = 0; p < ring.length; p++)
+                ring[p] = p;
+            percolated = false;
+        }
+    }
+    
+    /**
+     * Release the union-find backend if it holds resources, such as the
+     * file of a {@link MappedUnionFind}; a backend on the heap needs no
+     * closing. The grid must not be used afterwards.
+     * @throws java.io.UncheckedIOException if the backend fails to close
+     */
+    @Override
+    public void close() {
+        if (!(uf instanceof Closeable)) return;
+        try {
+            ((Closeable) uf).close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // validate that i, j and k are valid indices, and return the site index
+    private int index(int i, int j, int k) {
+        if (i <= 0 || i > rows) 
             throw new IllegalArgumentException("row index i out of bounds");
-        if (j <= 0 || j >= N) 
+        if (j <= 0 || j > cols) 
             throw new IllegalArgumentException("column index j out of bounds");
+        if (k <= 0 || k > depth) 
+            throw new IllegalArgumentException("layer index k out of bounds");
+        return i * plane + k * layer + j;
     }
     
-    // union operation for both UF instances
-    private void union(int i, int j) {
-        uf.union(i, j);
+    // union site p with the open site q, carrying the bottom flag to the new root
+    private void union(int p, int q) {
+        int rootp = uf.find(p);
+        int rootq = uf.find(q);
+        if (rootp == rootq) return;
+        if (ring != null) fireUnion(p, rootp, rootq);
+        uf.union(rootp, rootq);
+        if (open[rootp] == 2 || open[rootq] == 2) open[uf.find(rootp)] = 2;
     }
     
     /**
-     * Open site (row <tt>i</tt>, column <tt>j</tt>) if it is not open already
+     * Open site (row <tt>i</tt>, column <tt>j</tt>) if it is not open already;
+     * on a cubic lattice, the site in layer 1
      * @param i the integer representing the row index
      * @param j the integer representing the column index
      * @throws java.lang.IllegalArgumentException 
-     *     unless both 0 < i <= N and 0 < j <= N
+     *     unless both 0 < i <= rows and 0 < j <= cols
      */ 
     public void open(int i, int j) {
-        validate(i, j);
-        if (isOpen(i, j)) return;
+        open(i, j, 1);
+    }
+    
+    /**
+     * Open site (row <tt>i</tt>, column <tt>j</tt>, layer <tt>k</tt>) if it
+     * is not open already
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @param k the integer representing the layer index
+     * @throws java.lang.IllegalArgumentException 
+     *     unless 0 < i <= rows, 0 < j <= cols and 0 < k <= depth
+     */ 
+    public void open(int i, int j, int k) {
+        int p = index(i, j, k);
+        if (open[p] > 0) return;
         
-        open[i][j] = 1;
+        open[p] = 1;
         count++;
-        // since they won't be used as open sites, 
-        // we make 0 represent the virtual-top, 1 represent the virtual-bottom.
-        if (i == N - 1) open[i][j] = 2;
-        if (i == 1) { 
-            uf.union(0, i * N + j);
-            if (open[i][j] == 2) open[0][0] = 2; // 1-by-1 grid corner case
-        }
+        if (i == rows) open[p] = 2;
+        if (i == 1) union(p, top);
 
-        if (j + 1 < N && isOpen(i, j + 1)) {
-            int q = uf.find(i * N + j);
-            int p = uf.find(i * N + j + 1);
-            union(i * N + j, i * N + j + 1);
-            if (open[p / N][p % N] == 2 || open[q / N][q % N] == 2) {
-                int t = uf.find(i * N + j);
-                open[t / N][t % N] = 2;
-            }
+        // the padding keeps every neighbour inside the array, blocked if off the grid
+        for (int d : offsets[(i + j) & 1])
+            if (open[p + d] > 0) union(p, p + d);
+        
+        if (ring != null && !percolated && percolates()) {
+            percolated = true;
+            listener.percolated(count);
         }
-        if (j - 1 > 0 && isOpen(i, j - 1)) {
-            int q = uf.find(i * N + j);
-            int p = uf.find(i * N + j - 1);
-            union(i * N + j, i * N + j - 1);
-            if (open[p / N][p % N] == 2 || open[q / N][q % N] == 2) {
-                int t = uf.find(i * N + j);
-                open[t / N][t % N] = 2;
-            }
+    }
+    
+    // row, column and layer of site p
+    private int row(int p) { return p / plane; }
+    private int col(int p) { return p % width; }
+    private int layer(int p) { return cubic ? p % plane / width : 1; }
+    
+    // report the events of merging the components rooted at rootp and rootq,
+    // which opening site p is about to do, and splice their rings
+    private void fireUnion(int p, int rootp, int rootq) {
+        int root = uf.find(top);
+        boolean topp = rootp == root, topq = rootq == root;
+        boolean bottomp = open[rootp] == 2, bottomq = open[rootq] == 2;
+        if (topp != topq) {
+            int first = topp ? rootq : rootp;
+            int s = first;
+            do {
+                if (cubic) listener.full(row(s), col(s), layer(s));
+                else listener.full(row(s), col(s));
+                s = ring[s];
+            } while (s != first);
         }
-        if (i - 1 > 0 && isOpen(i - 1, j)) {
-            int q = uf.find(i * N + j);
-            int p = uf.find((i-1) * N + j);
-            union(i * N + j, (i-1) * N + j);
-            if (open[p / N][p % N] == 2 || open[q / N][q % N] == 2) {
-                int t = uf.find(i * N + j);
-                open[t / N][t % N] = 2;
-            }
+        int t = ring[rootp];
+        ring[rootp] = ring[rootq];
+        ring[rootq] = t;
+        if (topp != topq || bottomp != bottomq) {
+            if (cubic) listener.merged(row(p), col(p), layer(p), topp || topq, bottomp || bottomq);
+            else listener.merged(row(p), col(p), topp || topq, bottomp || bottomq);
         }
-        if (i + 1 < N && isOpen(i+1, j)) {
-            int q = uf.find(i * N + j);
-            int p = uf.find((i + 1) * N + j);
-            union(i * N + j, (i+1) * N + j);
-            if (open[p / N][p % N] == 2 || open[q / N][q % N] == 2) {
-                int t = uf.find(i * N + j);
-                open[t/N][t % N] = 2;
-            }
+    }
+    
+    /**
+     * Attach a listener for the events of this system, replacing the previous
+     * one, or detach it with <tt>null</tt>. While a listener is attached the
+     * system keeps one more int per site. Attaching takes time linear in the
+     * number of sites; events that already happened are not reported.
+     * @param listener the listener, or <tt>null</tt>
+     */
+    public void setListener(PercolationListener listener) {
+        this.listener = listener;
+        if (listener == null) {
+            ring = null;
+            return;
+        }
+        if (ring != null) return;
+        ring = new int[open.length];
+        for (int p = 0; p < ring.length; p++)
+            ring[p] = p;
+        for (int p = 0; p < ring.length; p++) {
+            if (p != top && open[p] == 0) continue;
+            int root = uf.find(p);
+            if (root == p) continue;
+            int t = ring[p]; // splice the singleton p into root's ring
+            ring[p] = ring[root];
+            ring[root] = t;
         }
+        percolated = percolates();
     }
     
     /**
-     * Is site (row <tt>i</tt>, column <tt>j</tt>) open?
+     * Is site (row <tt>i</tt>, column <tt>j</tt>) open? On a cubic lattice,
+     * the site in layer 1.
      * @param i the integer representing the row index
      * @param j the integer representing the column index
      * @return <tt>true</tt> if the site at row <tt>i</tt>, column <tt>j</tt>
      *     is open and <tt>false</tt> otherwise
      * @throws java.lang.IllegalArgumentException 
-     *     unless both 0 < i <= N and 0 < j <= N
+     *     unless both 0 < i <= rows and 0 < j <= cols
      */
     public boolean isOpen(int i, int j) {
-        validate(i, j);
-        return open[i][j] > 0;
+        return isOpen(i, j, 1);
     }
     
     /**
-     * Is site (row <tt>i</tt>, column <tt>j</tt>) full?
+     * Is site (row <tt>i</tt>, column <tt>j</tt>, layer <tt>k</tt>) open?
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @param k the integer representing the layer index
+     * @return <tt>true</tt> if the site is open and <tt>false</tt> otherwise
+     * @throws java.lang.IllegalArgumentException 
+     *     unless 0 < i <= rows, 0 < j <= cols and 0 < k <= depth
+     */
+    public boolean isOpen(int i, int j, int k) {
+        return open[index(i, j, k)] > 0;
+    }
+    
+    /**
+     * Is site (row <tt>i</tt>, column <tt>j</tt>) full? On a cubic lattice,
+     * the site in layer 1.
      * @param i the integer representing the row index
      * @param j the integer representing the column index
      * @return <tt>true</tt> if the site at row <tt>i</tt>, column <tt>j</tt>
      *     is full and <tt>false</tt> otherwise
      * @throws java.lang.IllegalArgumentException 
-     *     unless both 0 < i <= N and 0 < j <= N
+     *     unless both 0 < i <= rows and 0 < j <= cols
      */ 
     public boolean isFull(int i, int j) {
-        validate(i, j);
-        return open[i][j] > 0 && uf.connected(0, i*N+j);
+        return isFull(i, j, 1);
+    }
+    
+    /**
+     * Is site (row <tt>i</tt>, column <tt>j</tt>, layer <tt>k</tt>) full?
+     * @param i the integer representing the row index
+     * @param j the integer representing the column index
+     * @param k the integer representing the layer index
+     * @return <tt>true</tt> if the site is full and <tt>false</tt> otherwise
+     * @throws java.lang.IllegalArgumentException 
+     *     unless 0 < i <= rows, 0 < j <= cols and 0 < k <= depth
+     */ 
+    public boolean isFull(int i, int j, int k) {
+        int p = index(i, j, k);
+        return open[p] > 0 && uf.connected(top, p);
+    }
+    
+    /**
+     * Snapshot of all full sites, as a bit set in which bit
+     * <tt>((i-1)*depth + (k-1))*cols + (j-1)</tt> is set if site (row
+     * <tt>i</tt>, column <tt>j</tt>, layer <tt>k</tt>) is full; on a 2-D
+     * lattice that is bit <tt>(i-1)*cols + (j-1)</tt>. Costs one pass over
+     * the grid instead of one <tt>isFull</tt> call per site.
+     * @return the full sites
+     */
+    public BitSet fullSites() {
+        return BitSet.valueOf(fullSites(null));
+    }
+    
+    /**
+     * Snapshot of all full sites into the words of a bit set: bit <tt>b</tt>
+     * as numbered by {@link #fullSites()}, that is bit <tt>b % 64</tt> of
+     * <tt>words[b / 64]</tt>, is set if that site is full. Reusing the
+     * array between calls avoids allocating a new one per snapshot.
+     * @param words the array to fill, or <tt>null</tt> (or too short) to
+     *     allocate a new one
+     * @return the filled array
+     */
+    public long[] fullSites(long[] words) {
+        int length = (int) (((long) rows * cols * depth + 63) >>> 6);
+        if (words == null || words.length < length) words = new long[length];
+        else Arrays.fill(words, 0L);
+        
+        int root = uf.find(top);
+        if (ring != null) { // only walk the sites of the top component
+            for (int p = ring[root]; p != root; p = ring[p])
+                if (p != top) set(words, p);
+            if (root != top) set(words, root);
+            return words;
+        }
+        int b = 0;
+        for (int i = 1; i <= rows; i++) {
+            for (int k = 1; k <= depth; k++) {
+                int p = i * plane + k * layer + 1;
+                for (int j = 1; j <= cols; j++, p++, b++)
+                    if (open[p] > 0 && uf.find(p) == root)
+                        words[b >>> 6] |= 1L << b;
+            }
+        }
+        return words;
+    }
+    
+    // set the bit of site p in a full-site snapshot
+    private void set(long[] words, int p) {
+        int b = ((row(p) - 1) * depth + layer(p) - 1) * cols + col(p) - 1;
+        words[b >>> 6] |= 1L << b;
     }
     
     /**
@@ -146,8 +400,7 @@ public class Percolation {
      * @return <tt>true</tt> if the system pocolates and <tt>false</tt> otherwise
      */ 
     public boolean percolates() {
-        int root = uf.find(0);
-        return open[root/N][root % N] == 2;
+        return open[uf.find(top)] == 2;
     }
 
     /**
@@ -160,27 +413,29 @@ public class Percolation {
     
     /**
      * Reads in a sequence of pairs of integers (between 0 and N-1) from input file,
+     * in text or binary form (see {@link SiteReader}),
      * where each two integer represents a open site position;
      * open the sites until the system percolates or meet the end of file, 
      * print open sites count and its percolation condition.
      */
-    public static void main(String[] args) {
-        In in = new In(args[0]);      // input file
-        int N = in.readInt();         // N-by-N percolation system
-        Percolation perc = new Percolation(N);
-        boolean percolates = false;
-        int count = 0;
-        while (!in.isEmpty()) {
-            int i = in.readInt();
-            int j = in.readInt();
-            if (!perc.isOpen(i, j))
-                ++count;
-            perc.open(i, j);
-            percolates = perc.percolates();
-            if (percolates) break;
+    public static void main(String[] args) throws IOException {
+        try (SiteReader in = new SiteReader(Paths.get(args[0]))) { // input file
+            int N = in.readInt();         // N-by-N percolation system
+            Percolation perc = new Percolation(N);
+            boolean percolates = false;
+            int count = 0;
+            while (!in.isEmpty()) {
+                int i = in.readInt();
+                int j = in.readInt();
+                if (!perc.isOpen(i, j))
+                    ++count;
+                perc.open(i, j);
+                percolates = perc.percolates();
+                if (percolates) break;
+            }
+            StdOut.println(count + " open sites");
+            if (percolates) StdOut.println("percolates");
+            else StdOut.println("does not percolate");
         }
-        StdOut.println(count + " open sites");
-        if (percolates) StdOut.println("percolates");
-        else StdOut.println("does not percolate");
     }
 }
\ No newline at end of file
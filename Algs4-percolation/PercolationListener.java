@@ -0,0 +1,57 @@
+/****************************************************************************
+ *  Compilation:  javac PercolationListener.java
+ *
+ *  Callbacks for the events of a Percolation system.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>PercolationListener</tt> interface receives the events of a
+ *  {@link Percolation} system as <em>open</em> causes them, so monitoring
+ *  code does not have to poll <em>isFull</em> or <em>percolates</em>.
+ *  All methods do nothing by default; implement the ones you need.
+ *  Events are delivered on the thread calling <em>open</em>, before it
+ *  returns.
+ *
+ *  @author Jiayue Bao
+ */
+public interface PercolationListener {
+
+    /**
+     * The system percolates for the first time.
+     * @param openSites the number of open sites at that moment
+     */
+    default void percolated(int openSites) { }
+
+    /**
+     * Opening site (row <tt>i</tt>, column <tt>j</tt>) merged components
+     * into one that now reaches the top or the bottom row, which at least
+     * one of the merged parts did not reach before.
+     * @param i the row index of the opened site
+     * @param j the column index of the opened site
+     * @param top <tt>true</tt> if the merged component reaches the top row
+     * @param bottom <tt>true</tt> if the merged component reaches the bottom row
+     */
+    default void merged(int i, int j, boolean top, boolean bottom) { }
+
+    /**
+     * Site (row <tt>i</tt>, column <tt>j</tt>) became full. This is reported
+     * exactly once per site.
+     * @param i the row index of the site
+     * @param j the column index of the site
+     */
+    default void full(int i, int j) { }
+
+    /**
+     * Same as {@link #merged(int, int, boolean, boolean)}, on a
+     * {@link Lattice#CUBIC} lattice, where the opened site is at
+     * (row <tt>i</tt>, column <tt>j</tt>, layer <tt>k</tt>).
+     */
+    default void merged(int i, int j, int k, boolean top, boolean bottom) { }
+
+    /**
+     * Same as {@link #full(int, int)}, on a {@link Lattice#CUBIC} lattice,
+     * where the site is at (row <tt>i</tt>, column <tt>j</tt>, layer <tt>k</tt>).
+     */
+    default void full(int i, int j, int k) { }
+}
@@ -4,6 +4,12 @@
  *
  *  Compilation:   javac-algs4 PercolationStats.java
  *  Execution:     java-algs4 PercolationStats 10 200
+ *                 java-algs4 PercolationStats 10 200 42 8   (seed, threads)
+ *                 java-algs4 PercolationStats 10 200 42 8 shuffle
+ *                 java-algs4 PercolationStats 10 200 42 8 shuffle rank
+ *                 (union-find: weighted, rank, splitting or byterank)
+ *                 java-algs4 PercolationStats 10 100000 -halfwidth 0.001 42
+ *                 (at most 100000 trials, stop at a half-width of 0.001)
  *  
  *  Estimate the percolation threshold using Monte Carlo simulation.
  *  1. Initialize all sites to be blocked.
@@ -12,20 +18,40 @@
  *       b. Open the site.
  *  3. The fraction of sites that are opened when the system percolates 
  *     provides an estimate of the percolation threshold.
+ *
+ *  Seeded runs may instead draw the sites from a shuffled list of all
+ *  sites (Sampling.SHUFFLE), so that every draw opens a new site.
+ *  They can also pick the union-find implementation behind every
+ *  Percolation, or stop as soon as the 95% confidence interval is
+ *  narrow enough.
  *  
  *----------------------------------------------------------------*/
 import edu.princeton.cs.algs4.StdRandom;
 import edu.princeton.cs.algs4.StdStats;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
 
 public class PercolationStats {
+	/* how a trial picks the next site to open */
+	public enum Sampling {
+		REJECTION, // draw random sites, skipping the ones already open
+		SHUFFLE    // open the sites in the order of a random permutation
+	}
+
+	private static final int MIN_TRIALS = 30; // before the adaptive rule may stop
+
 	private double[] threshold; // arrays recoding thresholds in different trials
 	
 	/* perform trials independent experiments on an n-by-n grid */
 	public PercolationStats(int n, int trials) {
 		if (n <= 0 || trials <= 0) throw new IllegalArgumentException("n or trials <=0.");
 		threshold = new double[trials];
+		Percolation sites = new Percolation(n);
 		for (int i=0; i < trials;i++) {
-			Percolation sites = new Percolation(n);
+			sites.reset();
 			while(!sites.percolates()) {
 				// Returns a random integer uniformly in [0, n+1).
 				int row = StdRandom.uniform(1,n+1);
@@ -38,6 +64,163 @@ public class PercolationStats {
 		}
 	}
 
+	/* perform trials independent experiments on an n-by-n grid, spread over a
+	   fork-join pool of the given number of worker threads. Every trial draws
+	   from its own stream split off the seed, so the results depend only on
+	   the seed and not on the number of threads or the scheduling. */
+	public PercolationStats(int n, int trials, long seed, int threads) {
+		this(n, trials, Sampling.REJECTION, seed, threads);
+	}
+
+	/* same as above, picking the sites of every trial by the given sampling */
+	public PercolationStats(int n, int trials, Sampling sampling, long seed, int threads) {
+		this(n, trials, sampling, WeightedQuickUnionUF::new, seed, threads);
+	}
+
+	/* same as above, building every grid on the union-find created by backend */
+	public PercolationStats(int n, int trials, Sampling sampling,
+	                        IntFunction<? extends UnionFind> backend, long seed, int threads) {
+		if (sampling == null) throw new IllegalArgumentException("calls with a null sampling.");
+		if (backend == null) throw new IllegalArgumentException("calls with a null backend.");
+		if (n <= 0 || trials <= 0) throw new IllegalArgumentException("n or trials <=0.");
+		if (threads <= 0) throw new IllegalArgumentException("threads <=0.");
+		threshold = new double[trials];
+		SplittableRandom random = new SplittableRandom(seed);
+		SplittableRandom[] streams = new SplittableRandom[trials];
+		for (int i = 0; i < trials; i++) streams[i] = random.split();
+		ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(() -> new Workspace(n, backend));
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			pool.invoke(new Trials(n, sampling, workspaces, streams, 0, trials));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/* perform independent experiments on an n-by-n grid, using shuffled
+	   sampling, until the 95% confidence interval has a half-width of at most
+	   halfWidth, or maxTrials experiments have run. The running mean and
+	   variance are updated with Welford's method after every trial, and the
+	   rule only applies after at least 30 trials (or maxTrials, if smaller),
+	   so that an early lucky streak cannot stop it. Trial i draws from the
+	   same stream as trial i of the fixed-count constructors with this seed,
+	   so the result is a prefix of a fixed-count run with this seed only
+	   when that run uses Sampling.SHUFFLE, not the default REJECTION. A named
+	   factory, because a constructor (int, double, int, long) would make
+	   calls like new PercolationStats(10, 200, 42, 8) ambiguous. */
+	public static PercolationStats adaptive(int n, double halfWidth, int maxTrials, long seed) {
+		if (n <= 0 || maxTrials <= 0) throw new IllegalArgumentException("n or maxTrials <=0.");
+		if (!(halfWidth > 0)) throw new IllegalArgumentException("halfWidth <=0.");
+		SplittableRandom random = new SplittableRandom(seed);
+		Workspace w = new Workspace(n, WeightedQuickUnionUF::new);
+		double[] results = new double[Math.min(maxTrials, 2 * MIN_TRIALS)];
+		double mean = 0, m2 = 0;
+		int t = 0;
+		while (t < maxTrials) {
+			double x = shuffledTrial(w.sites, n, w.order, random.split());
+			if (t == results.length)
+				results = Arrays.copyOf(results, (int) Math.min(maxTrials, 2L * t));
+			results[t++] = x;
+
+			double delta = x - mean; // Welford's update
+			mean += delta / t;
+			m2 += delta * (x - mean);
+			if (t >= Math.min(MIN_TRIALS, maxTrials) && t > 1
+			    && 1.96 * Math.sqrt(m2 / (t - 1) / t) <= halfWidth) break;
+		}
+		return new PercolationStats(Arrays.copyOf(results, t));
+	}
+
+	private PercolationStats(double[] threshold) {
+		this.threshold = threshold;
+	}
+
+	// a grid and a permutation of its sites, reused by every trial that runs
+	// on the same worker thread, so that trials after the first allocate nothing
+	private static class Workspace {
+		private final Percolation sites;
+		private final int[] order;
+
+		Workspace(int n, IntFunction<? extends UnionFind> backend) {
+			sites = new Percolation(n, backend);
+			order = new int[n*n];
+		}
+	}
+
+	// fork-join task running trials lo..hi-1, halving the range until it is small
+	private class Trials extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int n;
+		private final Sampling sampling;
+		private final ThreadLocal<Workspace> workspaces;
+		private final SplittableRandom[] streams;
+		private final int lo, hi;
+
+		Trials(int n, Sampling sampling, ThreadLocal<Workspace> workspaces,
+		       SplittableRandom[] streams, int lo, int hi) {
+			this.n = n;
+			this.sampling = sampling;
+			this.workspaces = workspaces;
+			this.streams = streams;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo <= 4) {
+				Workspace w = workspaces.get();
+				for (int i = lo; i < hi; i++)
+					threshold[i] = trial(n, sampling, w.sites, w.order, streams[i]);
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			invokeAll(new Trials(n, sampling, workspaces, streams, lo, mid),
+			          new Trials(n, sampling, workspaces, streams, mid, hi));
+		}
+	}
+
+	/* run one experiment on a reused n-by-n grid, which is reset first, drawing
+	   from the given stream, and return the fraction of open sites when the
+	   system percolates. order is scratch space of length n*n */
+	private static double trial(int n, Sampling sampling, Percolation sites, int[] order,
+	                            SplittableRandom random) {
+		if (sampling == Sampling.SHUFFLE) return shuffledTrial(sites, n, order, random);
+		sites.reset();
+		while (!sites.percolates()) {
+			int row = random.nextInt(1, n+1);
+			int col = random.nextInt(1, n+1);
+
+			if (!sites.isOpen(row,col)) sites.open(row,col);
+		}
+		return (double)sites.numberOfOpenSites()/(double)(n*n);
+	}
+
+	/* run one experiment opening the sites in random order: an incremental
+	   Fisher-Yates shuffle swaps a random not-yet-opened site into position k,
+	   so every draw opens a new site and no draw is wasted. The grid is reset
+	   and order (of length n*n) is refilled with the sites in index order
+	   first, so that the outcome only depends on the stream */
+	static double shuffledTrial(Percolation sites, int n, int[] order, SplittableRandom random) {
+		sites.reset();
+		for (int k = 0; k < order.length; k++) order[k] = k;
+		for (int k = 0; !sites.percolates(); k++) {
+			int r = random.nextInt(k, order.length);
+			int site = order[r];
+			order[r] = order[k];
+			order[k] = site;
+			sites.open(site / n + 1, site % n + 1);
+		}
+		return (double)sites.numberOfOpenSites()/(double)(n*n);
+	}
+
+	/* number of trials performed */
+	public int trials() {
+		return threshold.length;
+	}
+
 	/* sample mean of percolation threshold */
 	public double mean() {
 		return StdStats.mean(threshold);
@@ -59,17 +242,46 @@ public class PercolationStats {
 		return mean() + 1.96*stddev()/Math.sqrt(threshold.length);
 	}
 
+	/* union-find implementation for the given command-line name */
+	private static IntFunction<? extends UnionFind> backend(String name) {
+		switch (name.toLowerCase()) {
+			case "weighted":  return WeightedQuickUnionUF::new;
+			case "rank":      return RankUnionFind::new;
+			case "splitting": return SplittingUnionFind::new;
+			case "byterank":  return ByteRankUnionFind::new;
+			default: throw new IllegalArgumentException("unknown union-find " + name);
+		}
+	}
+
 	/* test client */
 	public static void main(String[] args) {
-		if (args.length != 2) {
-			System.out.println("Please enter the size and trials.");
+		boolean adaptive = args.length >= 3 && args[2].equals("-halfwidth");
+		if (adaptive ? args.length < 4 || args.length > 5 : args.length < 2 || args.length == 3 || args.length > 6) {
+			System.out.println("Please enter the size and trials, optionally followed by both seed and threads, then sampling and union-find,");
+			System.out.println("or the size, maximum trials, -halfwidth and the confidence half-width, optionally followed by seed.");
 			return;
 		}
 
 		int size   = Integer.parseInt(args[0]);
 		int trials = Integer.parseInt(args[1]);
 
-		PercolationStats stats = new PercolationStats(size,trials);
+		PercolationStats stats;
+		if (adaptive) {
+			double halfWidth = Double.parseDouble(args[3]);
+			long seed = args.length == 5 ? Long.parseLong(args[4]) : System.nanoTime();
+			stats = PercolationStats.adaptive(size,halfWidth,trials,seed);
+			System.out.println("trials                  = " + stats.trials());
+		}
+		else if (args.length >= 4) {
+			long seed   = Long.parseLong(args[2]);
+			int threads = Integer.parseInt(args[3]);
+			Sampling sampling = args.length >= 5 ? Sampling.valueOf(args[4].toUpperCase()) : Sampling.REJECTION;
+			String uf = args.length == 6 ? args[5] : "weighted";
+			stats = new PercolationStats(size,trials,sampling,backend(uf),seed,threads);
+		}
+		else {
+			stats = new PercolationStats(size,trials);
+		}
 		System.out.println("mean                    = "+stats.mean());
 		System.out.println("stddev                  = " +stats.stddev());
 		System.out.println("95% confidence interval = [" +stats.confidenceLo()+", "+stats.confidenceHi()+"]");
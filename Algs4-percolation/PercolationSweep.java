@@ -0,0 +1,85 @@
+/*----------------------------------------------------------------
+ *  Author:        Jiayue Bao
+ *  Last Updated:  10/18/2026
+ *
+ *  Compilation:   javac-algs4 PercolationSweep.java
+ *  Execution:     java-algs4 PercolationSweep 64:1000 128:500 256:200
+ *                 java-algs4 PercolationSweep -json -seed 42 64:1000 128:500
+ *
+ *  Estimate the percolation threshold for many (n, trials) pairs in
+ *  one JVM, and print one CSV row (or JSON object) per pair.
+ *  The trials use shuffled sampling (see PercolationStats). One grid
+ *  and one site permutation are allocated per grid size and reset
+ *  between trials, so consecutive trials allocate nothing and later
+ *  sizes run on a warmed-up JVM.
+ *
+ *----------------------------------------------------------------*/
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdStats;
+import java.util.SplittableRandom;
+
+public class PercolationSweep {
+
+	public static void main(String[] args) {
+		boolean json = false;
+		long seed = System.nanoTime();
+		int first = 0;
+		while (first < args.length && args[first].startsWith("-")) {
+			if (args[first].equals("-json")) json = true;
+			else if (args[first].equals("-seed")) seed = Long.parseLong(args[++first]);
+			else throw new IllegalArgumentException("unknown option " + args[first]);
+			first++;
+		}
+		if (first == args.length) {
+			System.out.println("Please enter one or more size:trials pairs.");
+			return;
+		}
+
+		SplittableRandom random = new SplittableRandom(seed);
+		Percolation sites = null;
+		int[] order = null;
+		int size = 0;
+
+		if (json) StdOut.println("[");
+		else StdOut.println("n,trials,mean,stddev,confidenceLo,confidenceHi,seconds");
+		for (int a = first; a < args.length; a++) {
+			String[] pair = args[a].split(":");
+			int n      = Integer.parseInt(pair[0]);
+			int trials = Integer.parseInt(pair[1]);
+			if (n <= 0 || trials <= 0) throw new IllegalArgumentException("n or trials <=0.");
+
+			if (n != size) { // reallocate only when the grid size changes
+				sites = new Percolation(n);
+				order = new int[n*n];
+				size = n;
+			}
+
+			long start = System.nanoTime();
+			double[] threshold = new double[trials];
+			for (int t = 0; t < trials; t++)
+				threshold[t] = PercolationStats.shuffledTrial(sites, n, order, random);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			double mean   = StdStats.mean(threshold);
+			double stddev = trials > 1 ? StdStats.stddev(threshold) : Double.NaN;
+			double lo = mean - 1.96*stddev/Math.sqrt(trials);
+			double hi = mean + 1.96*stddev/Math.sqrt(trials);
+			if (json) {
+				StdOut.printf("  {\"n\": %d, \"trials\": %d, \"mean\": %s, \"stddev\": %s, "
+				              + "\"confidenceLo\": %s, \"confidenceHi\": %s, \"seconds\": %s}%s%n",
+				              n, trials, number(mean), number(stddev), number(lo), number(hi),
+				              number(seconds), a + 1 < args.length ? "," : "");
+			}
+			else {
+				StdOut.println(n + "," + trials + "," + mean + "," + stddev + ","
+				               + lo + "," + hi + "," + seconds);
+			}
+		}
+		if (json) StdOut.println("]");
+	}
+
+	// a double as a JSON value; JSON has no NaN
+	private static String number(double x) {
+		return Double.isNaN(x) || Double.isInfinite(x) ? "null" : Double.toString(x);
+	}
+}
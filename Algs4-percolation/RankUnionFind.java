@@ -0,0 +1,58 @@
+/****************************************************************************
+ *  Compilation:  javac RankUnionFind.java
+ *  Dependencies: UnionFind.java
+ *
+ *  Union-find with union by rank and full path compression.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>RankUnionFind</tt> class is a {@link UnionFind} that links the
+ *  root of lower rank under the root of higher rank, and points every site
+ *  on a find path directly at the root (two passes over the path).
+ *
+ *  @author Jiayue Bao
+ */
+import java.util.Arrays;
+
+public class RankUnionFind implements UnionFind {
+
+    private int[] parent; // parent[p] = parent of site p
+    private int[] rank;   // rank[p] = upper bound on the height of the tree rooted at p
+
+    public RankUnionFind(int n) {
+        parent = new int[n];
+        rank = new int[n];
+        reset();
+    }
+
+    public void reset() {
+        for (int i = 0; i < parent.length; i++)
+            parent[i] = i;
+        Arrays.fill(rank, 0);
+    }
+
+    public int find(int p) {
+        int root = p;
+        while (root != parent[root])
+            root = parent[root];
+        while (p != root) { // full path compression
+            int next = parent[p];
+            parent[p] = root;
+            p = next;
+        }
+        return root;
+    }
+
+    public void union(int p, int q) {
+        int rootp = find(p);
+        int rootq = find(q);
+        if (rootp == rootq) return;
+        if (rank[rootp] < rank[rootq]) parent[rootp] = rootq;
+        else if (rank[rootp] > rank[rootq]) parent[rootq] = rootp;
+        else {
+            parent[rootq] = rootp;
+            rank[rootp]++;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/****************************************************************************
+ *  Compilation:  javac SiteReader.java
+ *  Execution:    java SiteReader input20.txt input20.bin
+ *
+ *  Fast reader for percolation input files in text or binary form.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>SiteReader</tt> class reads a percolation input file: the grid
+ *  size N followed by pairs of row and column indices of the sites to open.
+ *  Two formats are accepted, and told apart by their first four bytes:
+ *  <ul>
+ *  <li>text, as read by <tt>In.readInt()</tt>: integers separated by
+ *      whitespace. They are parsed straight from the bytes of a large
+ *      buffer filled from a <tt>FileChannel</tt>, without creating a
+ *      <tt>String</tt> per token.
+ *  <li>binary: the magic number <tt>0x50455243</tt> ("PERC"), then N, then
+ *      the pairs, all as big-endian 4-byte ints. The file is memory-mapped
+ *      and the ints are read straight from the mapping.
+ *  </ul>
+ *  Running <tt>main</tt> converts a text file into the binary format.
+ *
+ *  @author Jiayue Bao
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+public class SiteReader implements Closeable {
+
+    /** First int of a binary file. */
+    public static final int MAGIC = 0x50455243;
+
+    private static final int BUFFER_SIZE = 1 << 20;  // text buffer, in bytes
+    private static final long CHUNK_SIZE = 1L << 30; // binary mapping, in bytes
+
+    private FileChannel channel;
+    private boolean binary;
+    private ByteBuffer text;    // current window of a text file
+    private IntBuffer ints;     // current mapping of a binary file
+    private long position;      // file offset just past the current mapping
+
+    /**
+     * Open the given file for reading
+     * @param file the text or binary input file
+     * @throws java.io.UncheckedIOException if the file cannot be read
+     */
+    public SiteReader(Path file) {
+        try {
+            channel = FileChannel.open(file);
+            ByteBuffer head = ByteBuffer.allocate(4);
+            while (head.hasRemaining() && channel.read(head) >= 0) { }
+            binary = !head.hasRemaining() && head.getInt(0) == MAGIC;
+            if (binary) {
+                position = 4;
+                ints = IntBuffer.allocate(0);
+            }
+            else {
+                channel.position(0);
+                text = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                text.flip();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read " + file, e);
+        }
+    }
+
+    // refill the text buffer; false at the end of the file
+    private boolean fill() {
+        try {
+            text.clear();
+            int read;
+            do {
+                read = channel.read(text);
+            } while (read == 0);
+            text.flip();
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // map the next chunk of a binary file; false at the end of the file
+    private boolean map() {
+        try {
+            long size = channel.size() - position;
+            if (size < 4) return false;
+            size = Math.min(size & ~3L, CHUNK_SIZE);
+            ints = channel.map(FileChannel.MapMode.READ_ONLY, position, size).asIntBuffer();
+            position += size;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // skip whitespace in a text file; false at the end of the file
+    private boolean skipWhitespace() {
+        while (true) {
+            if (!text.hasRemaining() && !fill()) return false;
+            int p = text.position();
+            int limit = text.limit();
+            while (p < limit && text.get(p) <= ' ') p++;
+            text.position(p);
+            if (p < limit) return true;
+        }
+    }
+
+    /**
+     * Is the input empty (except possibly for whitespace)?
+     * @return <tt>true</tt> if there are no more integers to read
+     */
+    public boolean isEmpty() {
+        if (binary) return !ints.hasRemaining() && !map();
+        return !skipWhitespace();
+    }
+
+    /**
+     * Read the next integer
+     * @return the next integer of the input
+     * @throws java.util.NoSuchElementException if the input is empty
+     * @throws java.util.InputMismatchException if the next token of a text
+     *     file is not an int
+     */
+    public int readInt() {
+        if (isEmpty()) throw new NoSuchElementException("attempts to read an int from empty input");
+        if (binary) return ints.get();
+
+        boolean negative = text.get(text.position()) == '-';
+        if (negative) text.get();
+        long value = 0;
+        int digits = 0;
+        while (text.hasRemaining() || fill()) {
+            int c = text.get(text.position()) - '0';
+            if (c < 0 || c > 9) break;
+            text.get();
+            value = value * 10 + c;
+            if (value > (long) Integer.MAX_VALUE + 1) throw new InputMismatchException("int out of range");
+            digits++;
+        }
+        if (digits == 0 || (text.hasRemaining() && text.get(text.position()) > ' '))
+            throw new InputMismatchException("attempts to read a non-int token");
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) throw new InputMismatchException("int out of range");
+        return (int) value;
+    }
+
+    /**
+     * Close the input file.
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Convert a text input file (args[0]) into the binary format (args[1]).
+     */
+    public static void main(String[] args) throws IOException {
+        try (SiteReader in = new SiteReader(Paths.get(args[0]));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     Files.newOutputStream(Paths.get(args[1])), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            while (!in.isEmpty())
+                out.writeInt(in.readInt());
+        }
+    }
+}
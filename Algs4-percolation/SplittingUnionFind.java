@@ -0,0 +1,58 @@
+/****************************************************************************
+ *  Compilation:  javac SplittingUnionFind.java
+ *  Dependencies: UnionFind.java
+ *
+ *  Union-find with union by size and path splitting.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>SplittingUnionFind</tt> class is a {@link UnionFind} that links
+ *  the smaller tree under the larger one, and on every find points each
+ *  site on the path at its grandparent (path splitting), which compresses
+ *  in a single pass without a second walk up the tree.
+ *
+ *  @author Jiayue Bao
+ */
+import java.util.Arrays;
+
+public class SplittingUnionFind implements UnionFind {
+
+    private int[] parent; // parent[p] = parent of site p
+    private int[] size;   // size[p] = number of sites in the tree rooted at p
+
+    public SplittingUnionFind(int n) {
+        parent = new int[n];
+        size = new int[n];
+        reset();
+    }
+
+    public void reset() {
+        for (int i = 0; i < parent.length; i++)
+            parent[i] = i;
+        Arrays.fill(size, 1);
+    }
+
+    public int find(int p) {
+        while (p != parent[p]) {
+            int next = parent[p];
+            parent[p] = parent[next]; // path splitting
+            p = next;
+        }
+        return p;
+    }
+
+    public void union(int p, int q) {
+        int rootp = find(p);
+        int rootq = find(q);
+        if (rootp == rootq) return;
+        if (size[rootp] < size[rootq]) {
+            parent[rootp] = rootq;
+            size[rootq] += size[rootp];
+        }
+        else {
+            parent[rootq] = rootp;
+            size[rootp] += size[rootq];
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/****************************************************************************
+ *  Compilation:  javac UnionFind.java
+ *
+ *  The union-find data type used by Percolation.
+ *
+ ****************************************************************************/
+
+/**
+ *  The <tt>UnionFind</tt> interface represents a union-find data type over
+ *  the sites 0 through n-1. It supports the <em>union</em> and <em>find</em>
+ *  operations, along with a <em>connected</em> operation for determining
+ *  whether two sites are in the same component.
+ *  {@link Percolation} accepts any implementation as its backend.
+ *
+ *  @author Jiayue Bao
+ */
+public interface UnionFind {
+
+    /**
+     * Returns the canonical element (root) of the component containing p.
+     * @param p the integer representing one site
+     * @return the root of the component containing p
+     */
+    int find(int p);
+
+    /**
+     * Merges the component containing p with the component containing q.
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     */
+    void union(int p, int q);
+
+    /**
+     * Are the two sites in the same component?
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @return <tt>true</tt> if p and q are in the same component
+     */
+    default boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    /**
+     * Puts every site back into a component of its own, reusing the
+     * existing storage.
+     */
+    void reset();
+}
@@ -1,15 +1,22 @@
-public class WeightedQuickUnionUF{
+import java.util.Arrays;
+
+public class WeightedQuickUnionUF implements UnionFind{
 	private int[] id;
 	private int[] sz;
 
 	public WeightedQuickUnionUF(int N){
 		id = new int[N];
 		sz = new int[N];
-		for(int i=0;i<N;i++)
+		reset();
+	}
+
+	public void reset(){
+		for(int i=0;i<id.length;i++)
 			id[i] = i;
+		Arrays.fill(sz, 1);
 	}
 
-	private int root(int i){
+	public int find(int i){
 		while (i!=id[i]) {
 			id[i]=id[id[i]];//flat the tree
 			i = id[i];
@@ -18,12 +25,12 @@ public class WeightedQuickUnionUF{
 	}
 
 	public boolean connected(int p, int q){
-		return root(p) == root(q);
+		return find(p) == find(q);
 	}
 
 	public void union(int p, int q){
-		int rootp = root(p);
-		int rootq = root(q);
+		int rootp = find(p);
+		int rootq = find(q);
 		if(rootp == rootq) return;
 		if(sz[rootp] < sz[rootq]){// small tree is put under the big tree
 			id[rootp] = rootq;
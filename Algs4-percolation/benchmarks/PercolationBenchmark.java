@@ -0,0 +1,120 @@
+/******************************************************************************
+ *  Compilation:  javac-algs4 PercolationBenchmark.java
+ *  Execution:    java-algs4 PercolationBenchmark 64 256 1024
+ *  Dependencies: Percolation.java PercolationStats.java UnionFind.java
+ *                WeightedQuickUnionUF.java
+ *
+ *  Time and allocation benchmark of the percolation subsystem, for each
+ *  grid size given on the command line (default 64 256 1024):
+ *    - Percolation.open of every site, in random order
+ *    - Percolation.percolates on a grid with 59% of its sites open
+ *    - Percolation.isFull of every site on the same grid
+ *    - union and find on both WeightedQuickUnionUF implementations
+ *      (this repository's and algs4's)
+ *    - whole PercolationStats trials, on the calling thread (the serial
+ *      constructor), so that their allocation is counted too
+ *
+ *  Every benchmark is warmed up before it is measured, and reports the
+ *  mean time and the bytes allocated per operation on the calling thread,
+ *  so a regression in the hot path shows up as a jump in either column.
+ *
+ ******************************************************************************/
+
+import edu.princeton.cs.algs4.StdOut;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+public class PercolationBenchmark {
+    private static final int WARMUP = 3;     // untimed iterations
+    private static final int ITERATIONS = 5; // timed iterations
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile long sink; // keeps results alive
+
+    // run task WARMUP + ITERATIONS times, each doing ops operations, and
+    // print the mean time and allocation per operation of the timed runs
+    private static void measure(String name, int n, long ops, Runnable task) {
+        for (int i = 0; i < WARMUP; i++) task.run();
+        long thread = Thread.currentThread().getId();
+        long bytes = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) task.run();
+        long time = System.nanoTime() - start;
+        bytes = THREADS.getThreadAllocatedBytes(thread) - bytes;
+        StdOut.printf("%-28s %6d %12.1f ns/op %12.1f B/op%n", name, n,
+                      (double) time / (ITERATIONS * ops), (double) bytes / (ITERATIONS * ops));
+    }
+
+    // the sites of an n-by-n grid, 0..n*n-1, in random order
+    private static int[] permutation(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] order = new int[n*n];
+        for (int k = 0; k < order.length; k++) {
+            int r = random.nextInt(k + 1);
+            order[k] = order[r];
+            order[r] = k;
+        }
+        return order;
+    }
+
+    private static void benchmark(int n) {
+        int sites = n*n;
+        int[] order = permutation(n, n);
+
+        measure("Percolation.open", n, sites, () -> {
+            Percolation perc = new Percolation(n);
+            for (int site : order) perc.open(site / n + 1, site % n + 1);
+            sink += perc.numberOfOpenSites();
+        });
+
+        Percolation grid = new Percolation(n);
+        for (int k = 0; k < sites * 59 / 100; k++)
+            grid.open(order[k] / n + 1, order[k] % n + 1);
+        measure("Percolation.percolates", n, sites, () -> {
+            long count = 0;
+            for (int k = 0; k < sites; k++)
+                if (grid.percolates()) count++;
+            sink += count;
+        });
+        measure("Percolation.isFull", n, sites, () -> {
+            long count = 0;
+            for (int i = 1; i <= n; i++)
+                for (int j = 1; j <= n; j++)
+                    if (grid.isFull(i, j)) count++;
+            sink += count;
+        });
+
+        // union each site with a random other one, then find every site
+        int[] other = permutation(n, n + 1);
+        measure("WeightedQuickUnionUF", n, 2L * sites, () -> {
+            UnionFind uf = new WeightedQuickUnionUF(sites);
+            for (int k = 0; k < sites; k++) uf.union(order[k], other[k]);
+            long sum = 0;
+            for (int k = 0; k < sites; k++) sum += uf.find(k);
+            sink += sum;
+        });
+        measure("algs4.WeightedQuickUnionUF", n, 2L * sites, () -> {
+            edu.princeton.cs.algs4.WeightedQuickUnionUF uf =
+                new edu.princeton.cs.algs4.WeightedQuickUnionUF(sites);
+            for (int k = 0; k < sites; k++) uf.union(order[k], other[k]);
+            long sum = 0;
+            for (int k = 0; k < sites; k++) sum += uf.find(k);
+            sink += sum;
+        });
+
+        int trials = Math.max(1, (1 << 20) / sites);
+        measure("PercolationStats trial", n, trials, () -> {
+            PercolationStats stats = new PercolationStats(n, trials);
+            sink += Double.doubleToLongBits(stats.mean());
+        });
+    }
+
+    public static void main(String[] args) {
+        String[] sizes = args.length > 0 ? args : new String[] { "64", "256", "1024" };
+        StdOut.printf("%-28s %6s %15s %15s%n", "benchmark", "n", "time", "allocation");
+        for (String size : sizes)
+            benchmark(Integer.parseInt(size));
+    }
+}
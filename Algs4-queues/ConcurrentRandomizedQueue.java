@@ -0,0 +1,160 @@
+/*----------------------------------------------------------------
+ *  Author:        Jiayue Bao
+ *  Last Updated:  10/18/2026
+ *
+ *  Compilation:   javac-algs4 ConcurrentRandomizedQueue.java
+ *  Execution:     java-algs4 ConcurrentRandomizedQueue (main method not provided here)
+ *
+ *  A randomized queue that many producer and consumer threads can
+ *  use at once. The items are spread over several stripes, each an
+ *  array with its own lock, so threads working on different stripes
+ *  do not contend and throughput grows with the number of cores.
+ *
+ *  enqueue adds the item to a random stripe, preferring one whose
+ *  lock is free. dequeue picks a uniformly random stripe, skipping it
+ *  if it looks empty, then removes a uniformly random item of that
+ *  stripe by swapping it with the stripe's last item. It only reads
+ *  the size of the stripes it picks, so an operation touches a single
+ *  stripe's cache lines in the common case.
+ *
+ *  How close to uniform: with S stripes of which S' are not empty, an
+ *  item in a stripe holding s items is removed with probability
+ *  1/(S' s) instead of 1/n, i.e. off by the factor (n/S')/s, the mean
+ *  size of the non-empty stripes over this stripe's size, where n, S'
+ *  and s are taken at the moment of the pick. Since enqueue spreads the
+ *  items over random stripes, the sizes stay close to n/S when n is
+ *  much larger than S (a relative spread of about sqrt(S/n)), but
+ *  nothing stronger holds: contention in enqueue can skew the sizes,
+ *  and items in smaller stripes are favored. After S picks in a row
+ *  that look empty, dequeue falls back to scanning the stripes from a
+ *  random one, which favors the first non-empty stripe after a run of
+ *  empty ones; that only happens when the queue is nearly empty.
+ *
+ *----------------------------------------------------------------*/
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentRandomizedQueue<Item> {
+	private final Stripe<Item>[] stripes;
+
+	// one array of items behind its own lock
+	private static class Stripe<Item> {
+		private final ReentrantLock lock = new ReentrantLock();
+		private Item[] array = (Item[]) new Object[2];
+		private volatile int size; // written only while holding lock
+
+		// add the item; requires the lock
+		private void add(Item item) {
+			if (size == array.length) resize(size*2);
+			array[size] = item;
+			size = size + 1;
+		}
+
+		// remove a uniformly random item; requires the lock and size > 0
+		private Item remove(ThreadLocalRandom random) {
+			int index = random.nextInt(size);
+			Item item = array[index];
+			int last = size - 1;
+			array[index] = array[last];
+			array[last] = null;
+			size = last;
+			if (last > 0 && last == array.length/4) resize(array.length/2);
+			return item;
+		}
+
+		private void resize(int capacity) {
+			Item[] tmp = (Item[]) new Object[capacity];
+			System.arraycopy(array, 0, tmp, 0, size);
+			array = tmp;
+		}
+	}
+
+	/** construct an empty queue with a number of stripes suited to this machine */
+	public ConcurrentRandomizedQueue() {
+		this(Math.min(64, 4 * Runtime.getRuntime().availableProcessors()));
+	}
+
+	/** construct an empty queue with the given number of stripes */
+	public ConcurrentRandomizedQueue(int stripes) {
+		if (stripes <= 0) throw new IllegalArgumentException("stripes <= 0.");
+		this.stripes = (Stripe<Item>[]) new Stripe[stripes];
+		for (int i = 0; i < stripes; i++) {
+			this.stripes[i] = new Stripe<>();
+		}
+	}
+
+	/** is the queue empty? (a snapshot, which may be stale when it returns) */
+	public boolean isEmpty() {
+		for (Stripe<Item> stripe : stripes) {
+			if (stripe.size > 0) return false;
+		}
+		return true;
+	}
+
+	/** return the number of items on the queue (a snapshot, which may be stale when it returns) */
+	public int size() {
+		int n = 0;
+		for (Stripe<Item> stripe : stripes) {
+			n += stripe.size;
+		}
+		return n;
+	}
+
+	/** add the item */
+	public void enqueue(Item item) {
+		if (item == null) throw new IllegalArgumentException("Calls with a null argument.");
+		int start = ThreadLocalRandom.current().nextInt(stripes.length);
+		for (int i = 0; i < stripes.length; i++) { // the first stripe that is not busy
+			Stripe<Item> stripe = stripes[(start + i) % stripes.length];
+			if (stripe.lock.tryLock()) {
+				try {
+					stripe.add(item);
+				} finally {
+					stripe.lock.unlock();
+				}
+				return;
+			}
+		}
+		Stripe<Item> stripe = stripes[start];
+		stripe.lock.lock();
+		try {
+			stripe.add(item);
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/** remove and return a random item */
+	public Item dequeue() {
+		Item item = poll();
+		if (item == null) throw new NoSuchElementException("The ConcurrentRandomizedQueue is empty.");
+		return item;
+	}
+
+	/** remove and return a random item, or return null if every stripe was empty when looked at */
+	public Item poll() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < stripes.length; i++) {
+			Item item = poll(stripes[random.nextInt(stripes.length)], random);
+			if (item != null) return item;
+		}
+		int start = random.nextInt(stripes.length);
+		for (int i = 0; i < stripes.length; i++) { // nearly empty: look at every stripe once
+			Item item = poll(stripes[(start + i) % stripes.length], random);
+			if (item != null) return item;
+		}
+		return null;
+	}
+
+	// remove a random item of the stripe, or return null if it is empty
+	private Item poll(Stripe<Item> stripe, ThreadLocalRandom random) {
+		if (stripe.size == 0) return null;
+		stripe.lock.lock();
+		try {
+			return stripe.size > 0 ? stripe.remove(random) : null;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+}
@@ -10,6 +10,9 @@
  * and removing items from either the front or the back of the 
  * data structure.
  *
+ * Operations can be traced by attaching a Listener, which is off by
+ * default and then costs a single null check per operation.
+ *
  *----------------------------------------------------------------*/
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -18,6 +21,30 @@ public class Deque<Item> implements Iterable<Item> {
 	private int n; // size of Deque
 	private Node first;
 	private Node last;
+	private Listener<Item> listener; // null unless tracing
+
+
+	/** the operations reported to a listener */
+	public enum Operation {
+		ADD_FIRST("addFirst"), ADD_LAST("addLast"),
+		REMOVE_FIRST("removeFirst"), REMOVE_LAST("removeLast");
+
+		private final String name;
+
+		Operation(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/** receives every operation on a deque, after it is done */
+	public interface Listener<Item> {
+		void operation(Operation op, Item item, Deque<Item> deque);
+	}
 
 
 	//helper linked list class
@@ -40,6 +67,11 @@ public class Deque<Item> implements Iterable<Item> {
 		n = 0;
 	}
 
+	/** trace the operations on this deque with the listener, or stop tracing with null */
+	public void setListener(Listener<Item> listener) {
+		this.listener = listener;
+	}
+
 	/** is the deque empty? */
 	public boolean isEmpty() {
 		return first == null && last == null;
@@ -63,8 +95,7 @@ public class Deque<Item> implements Iterable<Item> {
 		}
 		
 		n++;
-		System.out.println("addFirst: "+ item);
-		print();
+		if (listener != null) listener.operation(Operation.ADD_FIRST, item, this);
 	}
 
 	/** add the item to the end */
@@ -79,8 +110,7 @@ public class Deque<Item> implements Iterable<Item> {
 		    oldlast.next = last;
 		}
 		n++;
-		System.out.println("addLast: "+ item);
-		print();
+		if (listener != null) listener.operation(Operation.ADD_LAST, item, this);
 	}
 
 	/** remove and return the item from the front */
@@ -96,8 +126,7 @@ public class Deque<Item> implements Iterable<Item> {
 		}
 		
 		n--;
-		System.out.println("removeFirst: "+ item);
-		print();
+		if (listener != null) listener.operation(Operation.REMOVE_FIRST, item, this);
 		return item;
 		
 
@@ -117,8 +146,7 @@ public class Deque<Item> implements Iterable<Item> {
 		}
 		
 		n--;
-		System.out.println("removeLast: "+ item);
-		print();
+		if (listener != null) listener.operation(Operation.REMOVE_LAST, item, this);
 		return item;
 	}
 
@@ -163,6 +191,10 @@ public class Deque<Item> implements Iterable<Item> {
 
 	public static void main(String[] args) {
 		Deque<Integer> deque = new Deque<>();
+		deque.setListener((op, item, d) -> {
+			System.out.println(op + ": " + item);
+			d.print();
+		});
 		deque.addFirst(1);
 		deque.addLast(2);
 		deque.addFirst(3);
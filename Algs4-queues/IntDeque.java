@@ -0,0 +1,131 @@
+/*----------------------------------------------------------------
+ *  Author:        Jiayue Bao
+ *  Last Updated:  10/18/2026
+ *
+ *  Compilation:   javac-algs4 IntDeque.java
+ *  Execution:     java-algs4 IntDeque
+ *
+ *  A deque of int values, the same circular array as
+ *  ResizingArrayDeque but over an int[], so no value is ever boxed
+ *  and an item costs exactly 4 bytes. Iteration is through a
+ *  PrimitiveIterator.OfInt or forEach(IntConsumer).
+ *
+ *----------------------------------------------------------------*/
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+public class IntDeque {
+	private static final int MIN_CAPACITY = 8;
+
+	private int[] array;
+	private int head; // index of the first item
+	private int n;    // size of the deque
+
+	/** construct an empty deque */
+	public IntDeque() {
+		array = new int[MIN_CAPACITY];
+		head = 0;
+		n = 0;
+	}
+
+	/** is the deque empty? */
+	public boolean isEmpty() {
+		return n == 0;
+	}
+
+	/** return the number of items on the deque */
+	public int size() {
+		return n;
+	}
+
+	// move the items to a new array of the given power-of-two capacity, first item at 0
+	private void resize(int capacity) {
+		int[] tmp = new int[capacity];
+		int mask = array.length - 1;
+		for (int i = 0; i < n; i++) {
+			tmp[i] = array[(head + i) & mask];
+		}
+		array = tmp;
+		head = 0;
+	}
+
+	/** add the item to the front */
+	public void addFirst(int item) {
+		if (n == array.length) resize(array.length * 2);
+		head = (head - 1) & (array.length - 1);
+		array[head] = item;
+		n++;
+	}
+
+	/** add the item to the end */
+	public void addLast(int item) {
+		if (n == array.length) resize(array.length * 2);
+		array[(head + n) & (array.length - 1)] = item;
+		n++;
+	}
+
+	/** remove and return the item from the front */
+	public int removeFirst() {
+		if (isEmpty()) throw new NoSuchElementException("The deque is empty.");
+		int item = array[head];
+		head = (head + 1) & (array.length - 1);
+		n--;
+		if (array.length > MIN_CAPACITY && n == array.length / 4) resize(array.length / 2);
+		return item;
+	}
+
+	/** remove and return the item from the end */
+	public int removeLast() {
+		if (isEmpty()) throw new NoSuchElementException("The deque is empty.");
+		int item = array[(head + n - 1) & (array.length - 1)];
+		n--;
+		if (array.length > MIN_CAPACITY && n == array.length / 4) resize(array.length / 2);
+		return item;
+	}
+
+	/** perform the action on each item in order from front to end */
+	public void forEach(IntConsumer action) {
+		int mask = array.length - 1;
+		for (int i = 0; i < n; i++) {
+			action.accept(array[(head + i) & mask]);
+		}
+	}
+
+	/** return an iterator over items in order from front to end */
+	public PrimitiveIterator.OfInt iterator() {
+		return new ArrayIterator();
+	}
+
+	/** an iterator */
+	private class ArrayIterator implements PrimitiveIterator.OfInt {
+		private int i = 0; // position of the next item, counted from the front
+
+		public boolean hasNext() {
+			return i < n;
+		}
+
+		public int nextInt() {
+			if (!hasNext()) throw new NoSuchElementException();
+			return array[(head + i++) & (array.length - 1)];
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	public static void main(String[] args) {
+		IntDeque deque = new IntDeque();
+		for (int i = 0; i < 20; i++) {
+			if (i % 2 == 0) deque.addFirst(i);
+			else deque.addLast(i);
+		}
+		deque.forEach(item -> System.out.print(item + ","));
+		System.out.println();
+		while (deque.size() > 1) {
+			System.out.println("removeFirst: " + deque.removeFirst()
+			                   + " removeLast: " + deque.removeLast());
+		}
+	}
+}
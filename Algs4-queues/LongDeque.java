@@ -0,0 +1,131 @@
+/*----------------------------------------------------------------
+ *  Author:        Jiayue Bao
+ *  Last Updated:  10/18/2026
+ *
+ *  Compilation:   javac-algs4 LongDeque.java
+ *  Execution:     java-algs4 LongDeque
+ *
+ *  A deque of long values, the same circular array as
+ *  ResizingArrayDeque but over a long[], so no value is ever boxed
+ *  and an item costs exactly 8 bytes. Iteration is through a
+ *  PrimitiveIterator.OfLong or forEach(LongConsumer).
+ *
+ *----------------------------------------------------------------*/
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+public class LongDeque {
+	private static final int MIN_CAPACITY = 8;
+
+	private long[] array;
+	private int head; // index of the first item
+	private int n;    // size of the deque
+
+	/** construct an empty deque */
+	public LongDeque() {
+		array = new long[MIN_CAPACITY];
+		head = 0;
+		n = 0;
+	}
+
+	/** is the deque empty? */
+	public boolean isEmpty() {
+		return n == 0;
+	}
+
+	/** return the number of items on the deque */
+	public int size() {
+		return n;
+	}
+
+	// move the items to a new array of the given power-of-two capacity, first item at 0
+	private void resize(int capacity) {
+		long[] tmp = new long[capacity];
+		int mask = array.length - 1;
+		for (int i = 0; i < n; i++) {
+			tmp[i] = array[(head + i) & mask];
+		}
+		array = tmp;
+		head = 0;
+	}
+
+	/** add the item to the front */
+	public void addFirst(long item) {
+		if (n == array.length) resize(array.length * 2);
+		head = (head - 1) & (array.length - 1);
+		array[head] = item;
+		n++;
+	}
+
+	/** add the item to the end */
+	public void addLast(long item) {
+		if (n == array.length) resize(array.length * 2);
+		array[(head + n) & (array.length - 1)] = item;
+		n++;
+	}
+
+	/** remove and return the item from the front */
+	public long removeFirst() {
+		if (isEmpty()) throw new NoSuchElementException("The deque is empty.");
+		long item = array[head];
+		head = (head + 1) & (array.length - 1);
+		n--;
+		if (array.length > MIN_CAPACITY && n == array.length / 4) resize(array.length / 2);
+		return item;
+	}
+
+	/** remove and return the item from the end */
+	public long removeLast() {
+		if (isEmpty()) throw new NoSuchElementException("The deque is empty.");
+		long item = array[(head + n - 1) & (array.length - 1)];
+		n--;
+		if (array.length > MIN_CAPACITY && n == array.length / 4) resize(array.length / 2);
+		return item;
+	}
+
+	/** perform the action on each item in order from front to end */
+	public void forEach(LongConsumer action) {
+		int mask = array.length - 1;
+		for (int i = 0; i < n; i++) {
+			action.accept(array[(head + i) & mask]);
+		}
+	}
+
+	/** return an iterator over items in order from front to end */
+	public PrimitiveIterator.OfLong iterator() {
+		return new ArrayIterator();
+	}
+
+	/** an iterator */
+	private class ArrayIterator implements PrimitiveIterator.OfLong {
+		private int i = 0; // position of the next item, counted from the front
+
+		public boolean hasNext() {
+			return i < n;
+		}
+
+		public long nextLong() {
+			if (!hasNext()) throw new NoSuchElementException();
+			return array[(head + i++) & (array.length - 1)];
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	public static void main(String[] args) {
+		LongDeque deque = new LongDeque();
+		for (int i = 0; i < 20; i++) {
+			if (i % 2 == 0) deque.addFirst(i);
+			else deque.addLast(i);
+		}
+		deque.forEach(item -> System.out.print(item + ","));
+		System.out.println();
+		while (deque.size() > 1) {
+			System.out.println("removeFirst: " + deque.removeFirst()
+			                   + " removeLast: " + deque.removeLast());
+		}
+	}
+}
@@ -4,17 +4,57 @@
  *
  *  Compilation:   javac-algs4 Permutation.java
  *  Execution:     java-algs4 Permutation 3 < distinct.txt
+ *                 java-algs4 Permutation 3 -stream < distinct.txt
+ *                 java-algs4 Permutation 3 -seed 42 < distinct.txt
  *
  *  A client program that takes an integer k as a command-line argument; 
  *  reads in a sequence of strings from standard input using StdIn.readString();
  *  and prints exactly k of them, uniformly at random. 
  *  Print each item from the sequence at most once.
  *
+ *  With -stream, only k strings are kept in memory at any time
+ *  (reservoir sampling), instead of the whole input.
+ *  With -seed S, every random choice comes from a generator seeded
+ *  with S, so the same input and seed always print the same strings.
+ *
  *----------------------------------------------------------------*/
 import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class Permutation {
+	/* reservoir sampling, Algorithm L: keep a uniformly random k of the
+	   strings read so far in a RandomizedQueue of at most k strings. After
+	   the first k, the number of strings to skip before the next one that
+	   replaces a random member of the reservoir is drawn directly, so there
+	   are O(k log(n/k)) random draws instead of one per string. */
+	private static RandomizedQueue<String> sample(int k, RandomGenerator random) {
+		RandomizedQueue<String> rq = new RandomizedQueue<>(random);
+		while (rq.size() < k && !StdIn.isEmpty()) {
+			rq.enqueue(StdIn.readString());
+		}
+		if (k == 0 || rq.size() < k) return rq;
+
+		double w = Math.exp(Math.log(uniform(random)) / k);
+		while (true) {
+			long skip = (long) Math.floor(Math.log(uniform(random)) / Math.log(1 - w));
+			for (long i = 0; i < skip; i++) {
+				if (StdIn.isEmpty()) return rq;
+				StdIn.readString();
+			}
+			if (StdIn.isEmpty()) return rq;
+			rq.dequeue(); // a uniformly random member leaves the reservoir
+			rq.enqueue(StdIn.readString());
+			w *= Math.exp(Math.log(uniform(random)) / k);
+		}
+	}
+
+	// uniform in (0, 1], so that its logarithm is finite
+	private static double uniform(RandomGenerator random) {
+		return 1.0 - random.nextDouble();
+	}
+
 	public static void main(String[] args) {
 		if (args.length == 0) {
 			StdOut.println("Integer k and input file missing.");
@@ -24,16 +64,34 @@ public class Permutation {
 		int k = Integer.parseInt(args[0]);
 		if (k < 0) return;
 
-		RandomizedQueue<String> rq = new RandomizedQueue<>();
-		while (!StdIn.isEmpty()) {
-			String str = StdIn.readString();
-			rq.enqueue(str);
+		boolean stream = false;
+		RandomGenerator random = null;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-stream")) stream = true;
+			else if (args[i].equals("-seed") && i + 1 < args.length) random = new SplittableRandom(Long.parseLong(args[++i]));
+			else {
+				StdOut.println("Unknown option " + args[i] + ".");
+				return;
+			}
+		}
+		if (random == null) random = new SplittableRandom();
+
+		RandomizedQueue<String> rq;
+		if (stream) {
+			rq = sample(k, random);
+		}
+		else {
+			rq = new RandomizedQueue<>(random);
+			while (!StdIn.isEmpty()) {
+				rq.enqueue(StdIn.readString());
+			}
 		}
 
 		if (k > rq.size()) return;
+		String[] strs = new String[k];
+		rq.dequeue(k, strs);
 		for(int i = 0; i < k; i++) {
-			String str = rq.dequeue();
-			StdOut.println(str);
+			StdOut.println(strs[i]);
 		}
 	}
 }
\ No newline at end of file
@@ -9,19 +9,33 @@
  *  the item removed is chosen uniformly at random from items in the 
  *  data structure.
  *
+ *  Each queue draws from its own RandomGenerator rather than the
+ *  shared StdRandom, so queues in different threads do not contend
+ *  and a queue built from a seeded generator is reproducible.
+ *
  *----------------------------------------------------------------*/
-import edu.princeton.cs.algs4.StdRandom;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8; // largest safe array length
+
 	private int size;
 	private Item[] array;
+	private final RandomGenerator random;
 	/** construct an empty randomized queue */
 	public RandomizedQueue() {
+		this(new SplittableRandom());
+	}
+
+	/** construct an empty randomized queue that draws from the given generator */
+	public RandomizedQueue(RandomGenerator random) {
+		if (random == null) throw new IllegalArgumentException("Calls with a null argument.");
 		size = 0;
 		array = (Item[]) new Object[2];
-
+		this.random = random;
 	}
 
 	/** is the randomized queue empty?*/
@@ -50,25 +64,53 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 		array[size++] = item;
 	}
 
+	/** add all the items, growing the array at most once */
+	public void enqueueAll(Item[] items) {
+		if (items == null) throw new IllegalArgumentException("Calls with a null argument.");
+		for (Item item : items) {
+			if (item == null) throw new IllegalArgumentException("Calls with a null item.");
+		}
+		long total = (long) size + items.length;
+		if (total > MAX_CAPACITY) throw new IllegalArgumentException("Too many items for one array.");
+		long capacity = array.length;
+		while (capacity < total) capacity *= 2;
+		if (capacity != array.length) resize((int) Math.min(capacity, MAX_CAPACITY));
+		System.arraycopy(items, 0, array, size, items.length);
+		size += items.length;
+	}
+
 	/** remove and return a random item */
 	public Item dequeue() {
 		if (isEmpty()) throw new NoSuchElementException("The RandomizedQueue is empty.");
-		int index = StdRandom.uniform(size);
+		int index = random.nextInt(size);
 		Item item = array[index];
 		
-		for (int i = index + 1;i < size; i++) {
-			array[i-1] = array[i];
-		}
-
-		array[--size] = null;
+		// the order of the array does not matter, so fill the hole with the last item
+		array[index] = array[--size];
+		array[size] = null;
 		if(size > 0 && size == array.length/4) resize(array.length/2);
 		return item;
 	}
 
+	/** remove k random items into dst[0..k-1], shrinking the array at most once */
+	public void dequeue(int k, Item[] dst) {
+		if (k < 0 || dst == null || dst.length < k) throw new IllegalArgumentException("Calls with an invalid argument.");
+		if (k > size) throw new NoSuchElementException("The RandomizedQueue has fewer than k items.");
+		for (int i = 0; i < k; i++) {
+			int index = random.nextInt(size);
+			dst[i] = array[index];
+			array[index] = array[--size];
+			array[size] = null;
+		}
+		int capacity = array.length;
+		while (capacity > 2 && size <= capacity/4) capacity /= 2;
+		if (capacity != array.length) resize(capacity);
+	}
+
 	/** return a random item (but do not remove it) */
 	public Item sample() {
 		if (isEmpty()) throw new NoSuchElementException("The RandomizedQueue is empty.");
-		int index = StdRandom.uniform(size);
+		int index = random.nextInt(size);
 		return array[index];
 	}
 
@@ -76,20 +118,67 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 	public Iterator<Item> iterator() {
 		return new RandomArrayIterator();
 	}
-	// an iterator
+	// an iterator that shuffles lazily: each next() does one step of a
+	// Fisher-Yates shuffle, so taking the first k items costs O(k) time
+	// and memory and nothing is shuffled or allocated up front
 	private class RandomArrayIterator implements Iterator<Item> {
 		private int current; // the index of the order 
-		private int[] order; // the index of the queue
+		private int n;       // number of items to iterate over
+		// the positions of the order that no longer hold their initial index,
+		// in an open-addressing table: keys[h] = 1 + position (0 if the slot
+		// is free) and values[h] = the index of the queue at that position
+		private int[] keys;
+		private int[] values;
+		private int entries;
 		public RandomArrayIterator() {
 			current = 0;
-			order = new int[size];
-			for (int i = 0; i < size; i++ ) {
-				order[i] = i;
+			n = size;
+			keys = new int[8];
+			values = new int[8];
+		}
+
+		// slot of position i in the table, or the free slot where it belongs
+		private int slot(int i) {
+			int mask = keys.length - 1;
+			int h = (i * 0x9E3779B9) >>> 1 & mask;
+			while (keys[h] != 0 && keys[h] != i + 1) h = (h + 1) & mask;
+			return h;
+		}
+
+		// index of the queue at position i of the order
+		private int at(int i) {
+			int h = slot(i);
+			return keys[h] == 0 ? i : values[h];
+		}
+
+		// record that position i of the order holds the given index of the queue
+		private void put(int i, int index) {
+			int h = slot(i);
+			if (keys[h] == 0) {
+				if (2 * (entries + 1) > keys.length) {
+					rehash(keys.length * 2);
+					h = slot(i);
+				}
+				keys[h] = i + 1;
+				entries++;
 			}
-			StdRandom.shuffle(order);
+			values[h] = index;
 		}
+
+		private void rehash(int capacity) {
+			int[] oldKeys = keys, oldValues = values;
+			keys = new int[capacity];
+			values = new int[capacity];
+			for (int h = 0; h < oldKeys.length; h++) {
+				if (oldKeys[h] == 0) continue;
+				int s = slot(oldKeys[h] - 1);
+				keys[s] = oldKeys[h];
+				values[s] = oldValues[h];
+			}
+		}
+
 		public boolean hasNext() {
-			return current != size;
+			return current != n;
 		}
 
 		public void remove() {
@@ -98,7 +187,11 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
 		public Item next() {
 			if (!hasNext()) throw new NoSuchElementException();
-			return array[order[current++]];
+			int r = current + random.nextInt(n - current);
+			int index = at(r);
+			if (r != current) put(r, at(current));
+			current++;
+			return array[index];
 		}
 	}
 
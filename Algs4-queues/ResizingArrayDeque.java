@@ -0,0 +1,129 @@
+/*----------------------------------------------------------------
+ *  Author:        Jiayue Bao
+ *  Last Updated:  10/18/2026
+ *
+ *  Compilation:   javac-algs4 ResizingArrayDeque.java
+ *  Execution:     java-algs4 ResizingArrayDeque
+ *
+ *  A deque with the same API as Deque, backed by a circular array
+ *  instead of a linked list. The capacity is always a power of two,
+ *  so an index wraps around with a mask instead of a modulo. The
+ *  array doubles when full and halves when a quarter full, so every
+ *  operation takes amortized constant time, and an item costs one
+ *  array slot (4-8 bytes) instead of a Node with three references.
+ *
+ *----------------------------------------------------------------*/
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class ResizingArrayDeque<Item> implements Iterable<Item> {
+	private static final int MIN_CAPACITY = 8;
+
+	private Item[] array;
+	private int head; // index of the first item
+	private int n;    // size of the deque
+
+	/** construct an empty deque */
+	public ResizingArrayDeque() {
+		array = (Item[]) new Object[MIN_CAPACITY];
+		head = 0;
+		n = 0;
+	}
+
+	/** is the deque empty? */
+	public boolean isEmpty() {
+		return n == 0;
+	}
+
+	/** return the number of items on the deque */
+	public int size() {
+		return n;
+	}
+
+	// move the items to a new array of the given power-of-two capacity, first item at 0
+	private void resize(int capacity) {
+		Item[] tmp = (Item[]) new Object[capacity];
+		int mask = array.length - 1;
+		for (int i = 0; i < n; i++) {
+			tmp[i] = array[(head + i) & mask];
+		}
+		array = tmp;
+		head = 0;
+	}
+
+	/** add the item to the front */
+	public void addFirst(Item item) {
+		if (item == null) throw new IllegalArgumentException("calls with a null argument.");
+		if (n == array.length) resize(array.length * 2);
+		head = (head - 1) & (array.length - 1);
+		array[head] = item;
+		n++;
+	}
+
+	/** add the item to the end */
+	public void addLast(Item item) {
+		if (item == null) throw new IllegalArgumentException("calls with a null argument.");
+		if (n == array.length) resize(array.length * 2);
+		array[(head + n) & (array.length - 1)] = item;
+		n++;
+	}
+
+	/** remove and return the item from the front */
+	public Item removeFirst() {
+		if (isEmpty()) throw new NoSuchElementException("The deque is empty.");
+		Item item = array[head];
+		array[head] = null; // avoid loitering
+		head = (head + 1) & (array.length - 1);
+		n--;
+		if (array.length > MIN_CAPACITY && n == array.length / 4) resize(array.length / 2);
+		return item;
+	}
+
+	/** remove and return the item from the end */
+	public Item removeLast() {
+		if (isEmpty()) throw new NoSuchElementException("The deque is empty.");
+		int last = (head + n - 1) & (array.length - 1);
+		Item item = array[last];
+		array[last] = null; // avoid loitering
+		n--;
+		if (array.length > MIN_CAPACITY && n == array.length / 4) resize(array.length / 2);
+		return item;
+	}
+
+	/** return an iterator over items in order from front to end */
+	public Iterator<Item> iterator() {
+		return new ArrayIterator();
+	}
+
+	/** an iterator */
+	private class ArrayIterator implements Iterator<Item> {
+		private int i = 0; // position of the next item, counted from the front
+
+		public boolean hasNext() {
+			return i < n;
+		}
+
+		public Item next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			return array[(head + i++) & (array.length - 1)];
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	public static void main(String[] args) {
+		ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+		for (int i = 0; i < 20; i++) {
+			if (i % 2 == 0) deque.addFirst(i);
+			else deque.addLast(i);
+		}
+		for (int item : deque) System.out.print(item + ",");
+		System.out.println();
+		while (deque.size() > 1) {
+			System.out.println("removeFirst: " + deque.removeFirst()
+			                   + " removeLast: " + deque.removeLast());
+		}
+	}
+}
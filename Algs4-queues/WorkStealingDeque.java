@@ -0,0 +1,107 @@
+/*----------------------------------------------------------------
+ *  Author:        Jiayue Bao
+ *  Last Updated:  10/18/2026
+ *
+ *  Compilation:   javac-algs4 WorkStealingDeque.java
+ *  Execution:     java-algs4 WorkStealingDeque (main method not provided here)
+ *
+ *  A lock-free work-stealing deque in the style of Chase and Lev,
+ *  on a growable circular array. One owner thread uses the front as
+ *  a stack (addFirst / removeFirst); any number of thief threads
+ *  take items from the end (removeLast). The owner and the thieves
+ *  only contend, with a single CAS, for the very last item.
+ *
+ *  Only the owner thread may call addFirst and removeFirst. Since
+ *  other threads may empty the deque at any time, the remove methods
+ *  return null instead of throwing when there is nothing to take;
+ *  removeLast also returns null when it loses a race for an item,
+ *  and the thief should then simply try again (or another deque).
+ *
+ *  Slots are cleared when the owner removes an item, but not when a
+ *  thief does (a thief cannot tell whether the owner has reused the
+ *  slot), so a stolen item stays reachable until its slot is reused.
+ *
+ *----------------------------------------------------------------*/
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class WorkStealingDeque<Item> {
+	private static final int MIN_CAPACITY = 16;
+
+	// items live at indices top..bottom-1, slot index & (length - 1)
+	private volatile AtomicReferenceArray<Item> array;
+	private final AtomicLong top = new AtomicLong(); // thieves' end, only ever grows
+	private volatile long bottom;                    // owner's end, written only by the owner
+
+	/** construct an empty deque */
+	public WorkStealingDeque() {
+		array = new AtomicReferenceArray<>(MIN_CAPACITY);
+	}
+
+	/** is the deque empty? (a snapshot, which may be stale when it returns) */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/** return the number of items on the deque (a snapshot, which may be stale when it returns) */
+	public int size() {
+		long n = bottom - top.get();
+		return n < 0 ? 0 : (int) n;
+	}
+
+	// copy the items top..bottom-1 into an array twice as large, at the same indices
+	private AtomicReferenceArray<Item> grow(AtomicReferenceArray<Item> old, long t, long b) {
+		AtomicReferenceArray<Item> tmp = new AtomicReferenceArray<>(old.length() * 2);
+		int oldMask = old.length() - 1, mask = tmp.length() - 1;
+		for (long i = t; i < b; i++) {
+			tmp.set((int) i & mask, old.get((int) i & oldMask));
+		}
+		array = tmp;
+		return tmp;
+	}
+
+	/** add the item to the front; owner thread only */
+	public void addFirst(Item item) {
+		if (item == null) throw new IllegalArgumentException("calls with a null argument.");
+		long b = bottom;
+		long t = top.get();
+		AtomicReferenceArray<Item> a = array;
+		if (b - t >= a.length()) a = grow(a, t, b);
+		a.set((int) b & (a.length() - 1), item);
+		bottom = b + 1; // publishes the item to thieves
+	}
+
+	/** remove and return the item from the front, or null if empty; owner thread only */
+	public Item removeFirst() {
+		long b = bottom - 1;
+		AtomicReferenceArray<Item> a = array;
+		bottom = b; // claim the item before looking at top
+		long t = top.get();
+		if (t > b) { // empty
+			bottom = b + 1;
+			return null;
+		}
+		int slot = (int) b & (a.length() - 1);
+		Item item = a.get(slot);
+		if (t < b) { // more than one item: no thief can reach this one
+			a.set(slot, null);
+			return item;
+		}
+		// the last item: race the thieves for it
+		if (!top.compareAndSet(t, t + 1)) item = null;
+		else a.compareAndSet(slot, item, null);
+		bottom = b + 1;
+		return item;
+	}
+
+	/** remove and return the item from the end, or null if empty or lost to another thread; any thread */
+	public Item removeLast() {
+		long t = top.get();
+		long b = bottom;
+		if (t >= b) return null;
+		AtomicReferenceArray<Item> a = array;
+		Item item = a.get((int) t & (a.length() - 1));
+		if (!top.compareAndSet(t, t + 1)) return null;
+		return item;
+	}
+}
@@ -0,0 +1,50 @@
+/******************************************************************************
+ *  Compilation:  javac-algs4 PermutationBenchmark.java
+ *  Execution:    java-algs4 PermutationBenchmark 10000000
+ *  Dependencies: RandomizedQueue.java
+ *
+ *  Doubling test of the work Permutation does: enqueue n strings into a
+ *  RandomizedQueue, then dequeue all n of them. Starting at n = 156250,
+ *  n doubles until it reaches the maximum given on the command line
+ *  (default 10 million), printing the time and the ratio to the previous
+ *  time. A ratio close to 2 means linear time; 4 would mean quadratic.
+ *
+ ******************************************************************************/
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+public class PermutationBenchmark {
+    private static long sink; // keeps results alive
+
+    // time to enqueue and then dequeue all of the given strings
+    private static double time(String[] strings) {
+        Stopwatch timer = new Stopwatch();
+        RandomizedQueue<String> rq = new RandomizedQueue<>();
+        for (String s : strings)
+            rq.enqueue(s);
+        while (!rq.isEmpty())
+            sink += rq.dequeue().length();
+        return timer.elapsedTime();
+    }
+
+    private static String[] strings(int n) {
+        String[] strings = new String[n];
+        for (int i = 0; i < n; i++)
+            strings[i] = Integer.toString(i);
+        return strings;
+    }
+
+    public static void main(String[] args) {
+        int max = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        time(strings(100000)); // warm up
+        double prev = 0;
+        for (long n = Math.min(156250, max); ; n = Math.min(2 * n, max)) {
+            double time = time(strings((int) n));
+            if (prev > 0) StdOut.printf("%9d %7.2f s  ratio %4.1f%n", n, time, time / prev);
+            else StdOut.printf("%9d %7.2f s%n", n, time);
+            prev = time;
+            if (n == max) break;
+        }
+    }
+}